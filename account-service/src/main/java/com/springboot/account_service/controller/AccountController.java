@@ -1,5 +1,6 @@
 package com.springboot.account_service.controller;
 
+import com.springboot.account_service.dto.KeysetPage;
 import com.springboot.account_service.exception.AccountDeletionException;
 import com.springboot.account_service.exception.AccountNotFoundException;
 import com.springboot.account_service.exception.BankNotFoundException;
@@ -7,7 +8,10 @@ import com.springboot.account_service.model.Account;
 import com.springboot.account_service.service.AccountService;
 import com.springboot.account_service.util.Constants;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -22,23 +26,41 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 public class AccountController {
 
     private final AccountService accountService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
     public static final String ACCOUNTS_BY_BANK_ID = "accountsByBankId";
     public static final String ALL_ACCOUNTS = "allAccounts";
 
     @Autowired
-    public AccountController(AccountService accountService) {
+    public AccountController(AccountService accountService,
+                             @Value("${account.page.default-size:50}") int defaultPageSize,
+                             @Value("${account.page.max-size:500}") int maxPageSize) {
         this.accountService = accountService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    /**
+     * Lists accounts in id order, one page at a time. Pages are addressed by the last id seen
+     * ({@code after}) rather than an offset, and the {@code next} link carries the cursor for
+     * the following page; it is absent on the last one.
+     */
     @GetMapping
-    public ResponseEntity<List<EntityModel<Account>>> getAllAccounts(){
-        List<EntityModel<Account>> accountList= accountService.findAll().stream()
+    public ResponseEntity<CollectionModel<EntityModel<Account>>> getAllAccounts(@RequestParam(required = false) Long after,
+                                                                                @RequestParam(required = false) Integer size){
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        KeysetPage<Account> page = accountService.findPage(after, pageSize);
+        List<EntityModel<Account>> accountList= page.getContent().stream()
                 .map(account -> EntityModel.of(account,
                         linkTo(methodOn(AccountController.class).getAccountById(account.getId())).withSelfRel(),
-                        linkTo(methodOn(AccountController.class).getAllAccounts()).withRel(ALL_ACCOUNTS),
                         linkTo(methodOn(AccountController.class).getAccountsByBankId(account.getBankId())).withRel(ACCOUNTS_BY_BANK_ID)))
                 .toList();
-        return ResponseEntity.ok(accountList);
+        CollectionModel<EntityModel<Account>> accounts = CollectionModel.of(accountList,
+                linkTo(methodOn(AccountController.class).getAllAccounts(after, size)).withSelfRel());
+        if (page.getNextAfter() != null) {
+            accounts.add(linkTo(methodOn(AccountController.class).getAllAccounts(page.getNextAfter(), pageSize)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(accounts);
     }
 
     @GetMapping(Constants.ACCOUNT_ID)
@@ -47,7 +69,7 @@ public class AccountController {
                 .orElseThrow(() -> new AccountNotFoundException(id));
         return ResponseEntity.ok(EntityModel.of(account,
                 linkTo(methodOn(AccountController.class).getAccountById(id)).withSelfRel(),
-                linkTo(methodOn(AccountController.class).getAllAccounts()).withRel(ALL_ACCOUNTS),
+                linkTo(methodOn(AccountController.class).getAllAccounts(null, null)).withRel(ALL_ACCOUNTS),
                 linkTo(methodOn(AccountController.class).getAccountsByBankId(account.getBankId())).withRel(ACCOUNTS_BY_BANK_ID)));
     }
     @GetMapping(Constants.BANK_BANK_ID)
@@ -69,7 +91,7 @@ public class AccountController {
         return ResponseEntity.status(HttpStatus.CREATED)
                 .body(EntityModel.of(savedAccount,
                         linkTo(methodOn(AccountController.class).getAccountById(savedAccount.getId())).withSelfRel(),
-                        linkTo(methodOn(AccountController.class).getAllAccounts()).withRel(ALL_ACCOUNTS),
+                        linkTo(methodOn(AccountController.class).getAllAccounts(null, null)).withRel(ALL_ACCOUNTS),
                         linkTo(methodOn(AccountController.class).getAccountsByBankId(savedAccount.getBankId())).withRel(ACCOUNTS_BY_BANK_ID)));
     }
 
@@ -79,7 +101,7 @@ public class AccountController {
                 .orElseThrow(() -> new AccountNotFoundException(id));
         return ResponseEntity.ok(EntityModel.of(updatedAccount,
                 linkTo(methodOn(AccountController.class).getAccountById(updatedAccount.getId())).withSelfRel(),
-                linkTo(methodOn(AccountController.class).getAllAccounts()).withRel(ALL_ACCOUNTS),
+                linkTo(methodOn(AccountController.class).getAllAccounts(null, null)).withRel(ALL_ACCOUNTS),
                 linkTo(methodOn(AccountController.class).getAccountsByBankId(updatedAccount.getBankId())).withRel(ACCOUNTS_BY_BANK_ID)));
     }
 
@@ -0,0 +1,17 @@
+package com.springboot.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of a listing ordered by id. {@code nextAfter} is the id to resume from, or
+ * {@code null} when this is the last page.
+ */
+@Data
+@AllArgsConstructor
+public class KeysetPage<T> {
+    private List<T> content;
+    private Long nextAfter;
+}
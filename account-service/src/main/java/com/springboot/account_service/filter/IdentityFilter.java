@@ -0,0 +1,144 @@
+package com.springboot.account_service.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.account_service.exception.ErrorResponse;
+import com.springboot.account_service.util.Constants;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Set;
+
+/**
+ * Turns the gateway's signed {@link Constants#IDENTITY_HEADER} into the request's
+ * {@link IdentityPrincipal}. The header format and checks are those of bank-service's
+ * {@code IdentityFilter}; the services share no module, so the two copies must change together.
+ */
+@Component
+public class IdentityFilter extends OncePerRequestFilter {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> macs;
+    private final ObjectMapper objectMapper;
+
+    public IdentityFilter(@Value("${IDENTITY_SECRET}") String secret, ObjectMapper objectMapper) {
+        SecretKeySpec key = new SecretKeySpec(Base64.getDecoder().decode(secret), ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(key);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + ALGORITHM, e);
+            }
+        });
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String identity = request.getHeader(Constants.IDENTITY_HEADER);
+        if (identity == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        IdentityPrincipal principal = verify(identity);
+        if (principal == null) {
+            reject(response);
+            return;
+        }
+        filterChain.doFilter(new AuthenticatedRequest(request, principal), response);
+    }
+
+    IdentityPrincipal verify(String identity) {
+        int dot = identity.indexOf('.');
+        if (dot <= 0 || dot != identity.lastIndexOf('.')) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = Base64.getUrlDecoder().decode(identity.substring(0, dot));
+            signature = Base64.getUrlDecoder().decode(identity.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (!MessageDigest.isEqual(macs.get().doFinal(payload), signature)) {
+            return null;
+        }
+
+        String text = new String(payload, StandardCharsets.UTF_8);
+        int expirySeparator = text.lastIndexOf('\n');
+        int rolesSeparator = expirySeparator > 0 ? text.lastIndexOf('\n', expirySeparator - 1) : -1;
+        if (rolesSeparator < 0) {
+            return null;
+        }
+        Instant expiresAt;
+        try {
+            expiresAt = Instant.ofEpochSecond(Long.parseLong(text.substring(expirySeparator + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (!expiresAt.isAfter(Instant.now())) {
+            return null;
+        }
+        String roles = text.substring(rolesSeparator + 1, expirySeparator);
+        return new IdentityPrincipal(text.substring(0, rolesSeparator),
+                roles.isEmpty() ? Set.of() : Set.copyOf(Arrays.asList(roles.split(","))), expiresAt);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        ErrorResponse errorResponse = new ErrorResponse(
+                HttpStatus.UNAUTHORIZED.value(),
+                "Invalid identity header",
+                System.currentTimeMillis()
+        );
+        response.setStatus(HttpStatus.UNAUTHORIZED.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+
+    private static class AuthenticatedRequest extends HttpServletRequestWrapper {
+
+        private final IdentityPrincipal principal;
+
+        AuthenticatedRequest(HttpServletRequest request, IdentityPrincipal principal) {
+            super(request);
+            this.principal = principal;
+        }
+
+        @Override
+        public Principal getUserPrincipal() {
+            return principal;
+        }
+
+        @Override
+        public String getRemoteUser() {
+            return principal.getName();
+        }
+
+        @Override
+        public boolean isUserInRole(String role) {
+            return principal.roles().contains(role);
+        }
+    }
+}
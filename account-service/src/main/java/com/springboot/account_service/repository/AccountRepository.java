@@ -1,6 +1,7 @@
 package com.springboot.account_service.repository;
 
 import com.springboot.account_service.model.Account;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +14,10 @@ public interface AccountRepository extends JpaRepository<Account,Long> {
    public void deleteByBankId(Long accountId);
 
     public List<Account> findByBankId(Long accountId);
+
+    /**
+     * Range scan on the primary key: no offset to skip and no sort step, so the cost of a page
+     * does not depend on how far into the table it starts.
+     */
+    public List<Account> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -1,12 +1,13 @@
 package com.springboot.account_service.service;
 
+import com.springboot.account_service.dto.KeysetPage;
 import com.springboot.account_service.model.Account;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface AccountService {
-    public List<Account> findAll();
+    public KeysetPage<Account> findPage(Long afterId, int size);
     public Optional<Account> findById(Long id);
     public List<Account> findByBankId(Long bankId);
     public Account save(Account account);
@@ -1,8 +1,10 @@
 package com.springboot.account_service.service;
 
+import com.springboot.account_service.dto.KeysetPage;
 import com.springboot.account_service.model.Account;
 import com.springboot.account_service.repository.AccountRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -19,8 +21,14 @@ public class AccountServiceImpl implements AccountService{
     }
 
     @Override
-    public List<Account> findAll() {
-        return accountRepository.findAll();
+    public KeysetPage<Account> findPage(Long afterId, int size) {
+        // One row past the page tells us whether a next page exists without a count query.
+        List<Account> accounts = accountRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1));
+        if (accounts.size() <= size) {
+            return new KeysetPage<>(accounts, null);
+        }
+        List<Account> page = accounts.subList(0, size);
+        return new KeysetPage<>(page, page.get(size - 1).getId());
     }
 
     @Override
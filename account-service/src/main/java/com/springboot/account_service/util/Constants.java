@@ -7,4 +7,5 @@ public class Constants {
     public static final String ACCOUNT_BASE_URL="/accounts";
     public static final String ACCOUNT_ID="/{id}";
     public static final String BANK_BANK_ID="/bank/{bankId}";
+    public static final String IDENTITY_HEADER="X-Identity";
 }
@@ -1,5 +1,6 @@
 package com.springboot.account_service.controller;
 
+import com.springboot.account_service.dto.KeysetPage;
 import com.springboot.account_service.exception.AccountDeletionException;
 import com.springboot.account_service.exception.AccountNotFoundException;
 import com.springboot.account_service.exception.BankNotFoundException;
@@ -7,12 +8,13 @@ import com.springboot.account_service.model.Account;
 import com.springboot.account_service.service.AccountService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 
 import java.util.Collections;
 import java.util.List;
@@ -20,12 +22,12 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 class AccountControllerTest {
 
-    @InjectMocks
     private AccountController accountController;
 
     @Mock
@@ -36,6 +38,7 @@ class AccountControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        accountController = new AccountController(accountService, 2, 3);
         account = new Account();
         account.setId(1L);
         account.setBankId(1L);
@@ -43,14 +46,35 @@ class AccountControllerTest {
 
     @Test
     void testGetAllAccounts() {
-        when(accountService.findAll()).thenReturn(List.of(account));
+        when(accountService.findPage(null, 2)).thenReturn(new KeysetPage<>(List.of(account), 1L));
 
-        ResponseEntity<List<EntityModel<Account>>> response = accountController.getAllAccounts();
+        ResponseEntity<CollectionModel<EntityModel<Account>>> response = accountController.getAllAccounts(null, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertNotNull(response.getBody());
-        assertEquals(1, response.getBody().size());
-        verify(accountService, times(1)).findAll();
+        assertEquals(1, response.getBody().getContent().size());
+        assertTrue(response.getBody().getRequiredLink(IanaLinkRelations.NEXT).getHref().endsWith("/accounts?after=1&size=2"));
+        verify(accountService, times(1)).findPage(null, 2);
+    }
+
+    @Test
+    void testGetAllAccounts_LastPageHasNoNextLink() {
+        when(accountService.findPage(1L, 2)).thenReturn(new KeysetPage<>(List.of(account), null));
+
+        ResponseEntity<CollectionModel<EntityModel<Account>>> response = accountController.getAllAccounts(1L, 2);
+
+        assertTrue(response.getBody().getLink(IanaLinkRelations.NEXT).isEmpty());
+    }
+
+    @Test
+    void testGetAllAccounts_ClampsPageSize() {
+        when(accountService.findPage(any(), anyInt())).thenReturn(new KeysetPage<>(List.of(), null));
+
+        accountController.getAllAccounts(null, 10_000);
+        accountController.getAllAccounts(null, -5);
+
+        verify(accountService).findPage(null, 3);
+        verify(accountService).findPage(null, 1);
     }
 
     @Test
@@ -0,0 +1,62 @@
+package com.springboot.account_service.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.account_service.util.Constants;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Header parsing and rejection cases are covered by bank-service's copy of this filter; this only
+ * checks that account-service wires the filter to its own header constant and error response.
+ */
+class IdentityFilterTest {
+
+    private static final String SECRET = "3b9Yl0qEXx6m2Pq1cS4nVdJ8wHkR7tZuA5oGfLyTiBs=";
+
+    private final IdentityFilter identityFilter = new IdentityFilter(SECRET, new ObjectMapper());
+    private final MockFilterChain filterChain = new MockFilterChain();
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private static MockHttpServletRequest request(String payload, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/accounts/1");
+        request.addHeader(Constants.IDENTITY_HEADER,
+                encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(mac.doFinal(payloadBytes)));
+        return request;
+    }
+
+    @Test
+    void validIdentity_becomesRequestPrincipal() throws Exception {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+
+        identityFilter.doFilter(request("user\ncustomer\n" + expiry, SECRET), response, filterChain);
+
+        assertEquals("user", ((HttpServletRequest) filterChain.getRequest()).getRemoteUser());
+    }
+
+    @Test
+    void identitySignedWithAnotherKey_isRejected() throws Exception {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+
+        identityFilter.doFilter(request("admin\nadmin\n" + expiry, "Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M="),
+                response, filterChain);
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"statusCode\":401"));
+        assertNull(filterChain.getRequest());
+    }
+}
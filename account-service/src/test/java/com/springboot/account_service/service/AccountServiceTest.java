@@ -1,5 +1,6 @@
 package com.springboot.account_service.service;
 
+import com.springboot.account_service.dto.KeysetPage;
 import com.springboot.account_service.model.Account;
 import com.springboot.account_service.repository.AccountRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,6 +8,7 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Limit;
 
 import java.util.Collections;
 import java.util.List;
@@ -38,14 +40,26 @@ class AccountServiceTest {
     }
 
     @Test
-    void testFindAll() {
-        when(accountRepository.findAll()).thenReturn(List.of(account));
+    void testFindPage() {
+        Account second = new Account(2L, 893456790L, "Savings", 500, 1L);
+        Account third = new Account(3L, 893456791L, "Savings", 500, 1L);
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(account, second, third));
 
-        List<Account> accounts = accountService.findAll();
+        KeysetPage<Account> page = accountService.findPage(null, 2);
 
-        assertEquals(1, accounts.size());
-        assertEquals(account, accounts.get(0));
-        verify(accountRepository, times(1)).findAll();
+        assertEquals(List.of(account, second), page.getContent());
+        assertEquals(2L, page.getNextAfter());
+        verify(accountRepository, never()).findAll();
+    }
+
+    @Test
+    void testFindPage_LastPage() {
+        when(accountRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3))).thenReturn(List.of(account));
+
+        KeysetPage<Account> page = accountService.findPage(1L, 2);
+
+        assertEquals(List.of(account), page.getContent());
+        assertNull(page.getNextAfter());
     }
 
     @Test
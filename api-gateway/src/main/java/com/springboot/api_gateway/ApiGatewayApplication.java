@@ -12,6 +12,7 @@ public class ApiGatewayApplication {
 	public static void main(String[] args) {
 		Dotenv dotenv=Dotenv.load();
 		System.setProperty("JWT_SECRET",dotenv.get("JWT_SECRET"));
+		System.setProperty("IDENTITY_SECRET",dotenv.get("IDENTITY_SECRET"));
 		SpringApplication.run(ApiGatewayApplication.class, args);
 	}
 
@@ -1,12 +1,50 @@
 package com.springboot.api_gateway.exception;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
-@Data
-@AllArgsConstructor
-public class ErrorResponse {
-    private int statusCode;
-    private String message;
-    private long timeStamp;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Error body in the same {@code statusCode/message/timeStamp} shape the other services return.
+ * Everything but the timestamp is serialized once, so filters can reject a request by writing
+ * a few bytes instead of throwing an exception on the event loop.
+ */
+public final class ErrorResponse {
+
+    private static final byte[] CLOSE = "}".getBytes(StandardCharsets.US_ASCII);
+    private static final int MAX_TIMESTAMP_DIGITS = 20;
+
+    private final HttpStatus status;
+    private final byte[] prefix;
+
+    public ErrorResponse(HttpStatus status, String message) {
+        this.status = status;
+        this.prefix = ("{\"statusCode\":" + status.value()
+                + ",\"message\":\"" + escape(message)
+                + "\",\"timeStamp\":").getBytes(StandardCharsets.UTF_8);
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Mono<Void> writeTo(ServerWebExchange exchange) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        DataBuffer buffer = response.bufferFactory().allocateBuffer(prefix.length + MAX_TIMESTAMP_DIGITS + CLOSE.length);
+        buffer.write(prefix);
+        buffer.write(Long.toString(System.currentTimeMillis()), StandardCharsets.US_ASCII);
+        buffer.write(CLOSE);
+        return response.writeWith(Mono.just(buffer));
+    }
+
+    private static String escape(String message) {
+        return message.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
 }
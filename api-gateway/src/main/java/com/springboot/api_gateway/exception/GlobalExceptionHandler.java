@@ -1,30 +0,0 @@
-package com.springboot.api_gateway.exception;
-
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.ControllerAdvice;
-import org.springframework.web.bind.annotation.ExceptionHandler;
-
-@ControllerAdvice
-public class GlobalExceptionHandler {
-
-    @ExceptionHandler(MissingAuthorizationHeaderException.class)
-    public ResponseEntity<ErrorResponse> handleMissingAuthorizationHeaderException(MissingAuthorizationHeaderException e){
-        ErrorResponse errorResponse=new ErrorResponse(
-                HttpStatus.BAD_REQUEST.value(),
-                e.getMessage(),
-                System.currentTimeMillis()
-        );
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
-    }
-
-    @ExceptionHandler(UnauthorizedAccessException.class)
-    public ResponseEntity<ErrorResponse> handleUnauthorizedAccessException(UnauthorizedAccessException e){
-        ErrorResponse errorResponse=new ErrorResponse(
-                HttpStatus.UNAUTHORIZED.value(),
-                e.getMessage(),
-                System.currentTimeMillis()
-        );
-        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(errorResponse);
-    }
-}
@@ -1,7 +0,0 @@
-package com.springboot.api_gateway.exception;
-
-public class MissingAuthorizationHeaderException extends RuntimeException{
-    public MissingAuthorizationHeaderException(String message) {
-        super(message);
-    }
-}
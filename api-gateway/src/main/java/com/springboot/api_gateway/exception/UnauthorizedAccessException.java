@@ -1,7 +0,0 @@
-package com.springboot.api_gateway.exception;
-
-public class UnauthorizedAccessException extends RuntimeException{
-    public UnauthorizedAccessException(String message) {
-        super(message);
-    }
-}
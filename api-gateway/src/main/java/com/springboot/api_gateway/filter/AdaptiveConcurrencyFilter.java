@@ -0,0 +1,114 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.exception.ErrorResponse;
+import com.springboot.api_gateway.util.GradientConcurrencyLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.SignalType;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sheds load with 503 once a route has as many requests in flight as its backend can sustain.
+ * The limit is learned per route by a {@link GradientConcurrencyLimiter}; a route keeps its
+ * learned limit across route refreshes as long as its settings do not change. The current limit,
+ * in-flight count and shed count are published per route.
+ */
+@Component
+public class AdaptiveConcurrencyFilter extends AbstractGatewayFilterFactory<AdaptiveConcurrencyFilter.Config> {
+
+    private static final ErrorResponse OVERLOADED =
+            new ErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service is overloaded, please retry later");
+
+    private static final GradientConcurrencyLimiter IDLE = new GradientConcurrencyLimiter(1, 1, 1);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteLimiter> limitersByRoute = new ConcurrentHashMap<>();
+
+    public AdaptiveConcurrencyFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        RouteLimiter routeLimiter = limitersByRoute.compute(routeId, (id, existing) ->
+                existing != null && existing.config().equals(config) ? existing : newRouteLimiter(config));
+        GradientConcurrencyLimiter limiter = routeLimiter.limiter();
+        Counter shed = routeLimiter.shed();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (!limiter.tryAcquire()) {
+                shed.increment();
+                return OVERLOADED.writeTo(exchange);
+            }
+            long start = System.nanoTime();
+            return chain.filter(exchange)
+                    .doFinally(signal -> {
+                        if (signal == SignalType.CANCEL) {
+                            limiter.release();
+                        } else {
+                            limiter.release(System.nanoTime() - start, signal == SignalType.ON_ERROR || isDropped(exchange));
+                        }
+                    });
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private RouteLimiter newRouteLimiter(Config config) {
+        String routeId = config.getRouteId();
+        if (!limitersByRoute.containsKey(routeId)) {
+            Gauge.builder("gateway.concurrency.limit", limitersByRoute, limiters -> currentLimiter(limiters, routeId).getLimit())
+                    .description("Learned concurrency limit of the route's backend")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.concurrency.in-flight", limitersByRoute, limiters -> currentLimiter(limiters, routeId).getInFlight())
+                    .description("Requests currently in flight to the route's backend")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+        Counter shed = Counter.builder("gateway.concurrency.shed")
+                .description("Requests rejected because the route was at its concurrency limit")
+                .tag("route", routeId)
+                .register(meterRegistry);
+        return new RouteLimiter(config,
+                new GradientConcurrencyLimiter(config.getInitialLimit(), config.getMinLimit(), config.getMaxLimit()), shed);
+    }
+
+    /**
+     * Gauges look the limiter up on every read so they keep reporting after a route refresh
+     * replaces it.
+     */
+    private static GradientConcurrencyLimiter currentLimiter(Map<String, RouteLimiter> limiters, String routeId) {
+        RouteLimiter routeLimiter = limiters.get(routeId);
+        return routeLimiter != null ? routeLimiter.limiter() : IDLE;
+    }
+
+    private static boolean isDropped(ServerWebExchange exchange) {
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null
+                && (status.value() == HttpStatus.SERVICE_UNAVAILABLE.value() || status.value() == HttpStatus.GATEWAY_TIMEOUT.value());
+    }
+
+    private record RouteLimiter(Config config, GradientConcurrencyLimiter limiter, Counter shed) {
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private int initialLimit = 20;
+        private int minLimit = 5;
+        private int maxLimit = 200;
+    }
+}
@@ -1,48 +1,140 @@
 package com.springboot.api_gateway.filter;
 
-import com.springboot.api_gateway.exception.MissingAuthorizationHeaderException;
-import com.springboot.api_gateway.exception.UnauthorizedAccessException;
+import com.springboot.api_gateway.exception.ErrorResponse;
+import com.springboot.api_gateway.revocation.RevokedTokens;
+import com.springboot.api_gateway.util.IdentityHeaderSigner;
 import com.springboot.api_gateway.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.ws.rs.core.HttpHeaders;
-import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
 import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
 
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Verifies the bearer token on secured paths and forwards the verified identity as a signed
+ * {@value IdentityHeaderSigner#HEADER} header. Any identity header sent by the client is dropped
+ * on every path so it can never be forged from outside. Tokens without an expiry, and tokens
+ * whose id has been revoked, are refused even though their signature still verifies.
+ */
 @Component
 public class AuthenticationFilter extends AbstractGatewayFilterFactory<AuthenticationFilter.Config> {
 
-    @Autowired
-    private RouteValidator validator;
+    /**
+     * Exchange attribute holding the verified {@link Claims} for filters further down the chain.
+     */
+    public static final String CLAIMS_ATTR = AuthenticationFilter.class.getName() + ".claims";
+
+    private static final String BEARER_PREFIX = "Bearer ";
+    private static final String UNAUTHORIZED_MESSAGE = "Unauthorized access to application";
 
-    @Autowired
-    private JwtUtil jwtUtil;
+    private final RouteValidator validator;
+    private final JwtUtil jwtUtil;
+    private final IdentityHeaderSigner identitySigner;
+    private final RevokedTokens revokedTokens;
+    private final Map<Rejection, Counter> rejectionCounters = new EnumMap<>(Rejection.class);
 
-    public AuthenticationFilter() {
+    public AuthenticationFilter(RouteValidator validator, JwtUtil jwtUtil, IdentityHeaderSigner identitySigner,
+                                RevokedTokens revokedTokens, MeterRegistry meterRegistry) {
         super(Config.class);
+        this.validator = validator;
+        this.jwtUtil = jwtUtil;
+        this.identitySigner = identitySigner;
+        this.revokedTokens = revokedTokens;
+        for (Rejection rejection : Rejection.values()) {
+            rejectionCounters.put(rejection, Counter.builder("gateway.auth.rejections")
+                    .description("Requests rejected by the authentication filter")
+                    .tag("reason", rejection.reason)
+                    .register(meterRegistry));
+        }
     }
 
     @Override
     public GatewayFilter apply(Config config) {
-        return ((exchange, chain) -> {
-            if (validator.isSecured.test(exchange.getRequest())) {
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (validator.isSecured(exchange)) {
                 // Header contains token or not
-                if (!exchange.getRequest().getHeaders().containsKey(HttpHeaders.AUTHORIZATION)) {
-                    throw new MissingAuthorizationHeaderException("Missing authorization header");
+                String authHeader = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+                if (authHeader == null) {
+                    return reject(exchange, Rejection.MISSING_HEADER);
                 }
 
-                String authHeader = exchange.getRequest().getHeaders().get(HttpHeaders.AUTHORIZATION).get(0);
-                if (authHeader != null && authHeader.startsWith("Bearer ")) {
-                    authHeader = authHeader.substring(7); // remove the Bearer and space
+                if (authHeader.startsWith(BEARER_PREFIX)) {
+                    authHeader = authHeader.substring(BEARER_PREFIX.length()); // remove the Bearer and space
                 }
+                if (!isCompactJws(authHeader)) {
+                    return reject(exchange, Rejection.MALFORMED_TOKEN);
+                }
+                Claims claims;
                 try {
-                    jwtUtil.validateToken(authHeader);
+                    claims = jwtUtil.validateToken(authHeader);
+                } catch (ExpiredJwtException e) {
+                    return reject(exchange, Rejection.EXPIRED_TOKEN);
                 } catch (Exception e) {
-                    throw new UnauthorizedAccessException("Unauthorized access to application");
+                    return reject(exchange, Rejection.INVALID_TOKEN);
+                }
+                if (claims.getExpiration() == null) {
+                    // The identity header carries the token's expiry, and a token that never expires is not accepted.
+                    return reject(exchange, Rejection.INVALID_TOKEN);
                 }
+                if (revokedTokens.isRevoked(claims.getId())) {
+                    return reject(exchange, Rejection.REVOKED_TOKEN);
+                }
+                exchange.getAttributes().put(CLAIMS_ATTR, claims);
+                String identity = identitySigner.sign(claims);
+                return chain.filter(exchange.mutate()
+                        .request(request -> request.headers(headers -> headers.set(IdentityHeaderSigner.HEADER, identity)))
+                        .build());
+            }
+            if (exchange.getRequest().getHeaders().containsKey(IdentityHeaderSigner.HEADER)) {
+                return chain.filter(exchange.mutate()
+                        .request(request -> request.headers(headers -> headers.remove(IdentityHeaderSigner.HEADER)))
+                        .build());
             }
             return chain.filter(exchange);
-        });
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private Mono<Void> reject(ServerWebExchange exchange, Rejection rejection) {
+        rejectionCounters.get(rejection).increment();
+        return rejection.response.writeTo(exchange);
+    }
+
+    /**
+     * A signed JWT has exactly two dots; anything else is rejected before it reaches the parser.
+     */
+    private static boolean isCompactJws(String token) {
+        int first = token.indexOf('.');
+        if (first <= 0) {
+            return false;
+        }
+        int second = token.indexOf('.', first + 1);
+        return second > first + 1 && second < token.length() - 1 && token.indexOf('.', second + 1) < 0;
+    }
+
+    private enum Rejection {
+        MISSING_HEADER("missing_header", new ErrorResponse(HttpStatus.BAD_REQUEST, "Missing authorization header")),
+        MALFORMED_TOKEN("malformed_token", new ErrorResponse(HttpStatus.UNAUTHORIZED, UNAUTHORIZED_MESSAGE)),
+        EXPIRED_TOKEN("expired_token", new ErrorResponse(HttpStatus.UNAUTHORIZED, UNAUTHORIZED_MESSAGE)),
+        INVALID_TOKEN("invalid_token", new ErrorResponse(HttpStatus.UNAUTHORIZED, UNAUTHORIZED_MESSAGE)),
+        REVOKED_TOKEN("revoked_token", new ErrorResponse(HttpStatus.UNAUTHORIZED, UNAUTHORIZED_MESSAGE));
+
+        private final String reason;
+        private final ErrorResponse response;
+
+        Rejection(String reason, ErrorResponse response) {
+            this.reason = reason;
+            this.response = response;
+        }
     }
 
     public static class Config {
@@ -0,0 +1,155 @@
+package com.springboot.api_gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.springboot.api_gateway.exception.ErrorResponse;
+import com.springboot.api_gateway.util.IdentityHeaderSigner;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Terminal filter for the {@code /views/bank/{id}} composition route. It fetches the bank from
+ * bank-service and its accounts from account-service in parallel and merges them into
+ * {@code {"bank": ..., "accounts": [...], "errors": [...]}}, so the UI needs one round trip and
+ * bank-service no longer looks the bank up a second time to list its accounts.
+ *
+ * <p>Each leg has its own timeout. A failed leg is reported in {@code errors} and leaves its
+ * field {@code null}; the view only fails as a whole when the bank does not exist (404) or
+ * both legs failed (502, or 504 when both timed out). Declare it after
+ * {@code AuthenticationFilter} so the signed identity is forwarded to both services.
+ */
+@Component
+public class BankViewFilter extends AbstractGatewayFilterFactory<BankViewFilter.Config> {
+
+    private static final String ID_VARIABLE = "id";
+    private static final String BANK_LEG = "bank";
+    private static final String ACCOUNTS_LEG = "accounts";
+    private static final ErrorResponse BANK_NOT_FOUND = new ErrorResponse(HttpStatus.NOT_FOUND, "Bank not found");
+    private static final ErrorResponse BAD_GATEWAY = new ErrorResponse(HttpStatus.BAD_GATEWAY, "Bank view is unavailable");
+    private static final ErrorResponse GATEWAY_TIMEOUT = new ErrorResponse(HttpStatus.GATEWAY_TIMEOUT, "Bank view timed out");
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    public BankViewFilter(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                          ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.webClient = webClientBuilder.filter(loadBalancer).build();
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        return ((exchange, chain) -> {
+            String id = ServerWebExchangeUtils.getUriTemplateVariables(exchange).get(ID_VARIABLE);
+            if (id == null || !id.chars().allMatch(Character::isDigit)) {
+                return BANK_NOT_FOUND.writeTo(exchange);
+            }
+            String identity = exchange.getRequest().getHeaders().getFirst(IdentityHeaderSigner.HEADER);
+            Mono<Leg> bank = leg(config, BANK_LEG, config.getBankServiceUri() + "/bank/" + id, identity);
+            Mono<Leg> accounts = leg(config, ACCOUNTS_LEG, config.getAccountServiceUri() + "/accounts/bank/" + id, identity);
+            return Mono.zip(bank, accounts).flatMap(legs -> write(exchange, legs.getT1(), legs.getT2()));
+        });
+    }
+
+    private Mono<Leg> leg(Config config, String name, String uri, String identity) {
+        return webClient.get()
+                .uri(uri)
+                .accept(MediaType.valueOf("application/hal+json"), MediaType.APPLICATION_JSON)
+                .headers(headers -> {
+                    if (identity != null) {
+                        headers.set(IdentityHeaderSigner.HEADER, identity);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(JsonNode.class)
+                .timeout(config.getLegTimeout())
+                .map(body -> new Leg(name, body, null, null))
+                .onErrorResume(error -> Mono.just(failed(name, error)))
+                .doOnNext(leg -> {
+                    if (leg.failed()) {
+                        meterRegistry.counter("gateway.views.leg-failures", "route", String.valueOf(config.getRouteId()),
+                                "leg", name, "status", String.valueOf(leg.status().value())).increment();
+                    }
+                });
+    }
+
+    private static Leg failed(String name, Throwable error) {
+        if (error instanceof WebClientResponseException response) {
+            HttpStatus status = HttpStatus.resolve(response.getStatusCode().value());
+            return new Leg(name, null, status != null ? status : HttpStatus.BAD_GATEWAY,
+                    name + " service returned " + response.getStatusCode().value());
+        }
+        if (error instanceof TimeoutException) {
+            return new Leg(name, null, HttpStatus.GATEWAY_TIMEOUT, name + " service timed out");
+        }
+        return new Leg(name, null, HttpStatus.BAD_GATEWAY, name + " service is unreachable");
+    }
+
+    private Mono<Void> write(ServerWebExchange exchange, Leg bank, Leg accounts) {
+        if (bank.status() == HttpStatus.NOT_FOUND) {
+            return BANK_NOT_FOUND.writeTo(exchange);
+        }
+        // account-service answers 404 for a bank without accounts.
+        if (accounts.status() == HttpStatus.NOT_FOUND && !bank.failed()) {
+            accounts = new Leg(ACCOUNTS_LEG, objectMapper.createArrayNode(), null, null);
+        }
+        if (bank.failed() && accounts.failed()) {
+            boolean timedOut = bank.status() == HttpStatus.GATEWAY_TIMEOUT && accounts.status() == HttpStatus.GATEWAY_TIMEOUT;
+            return (timedOut ? GATEWAY_TIMEOUT : BAD_GATEWAY).writeTo(exchange);
+        }
+
+        ObjectNode view = objectMapper.createObjectNode();
+        view.set(BANK_LEG, bank.body());
+        view.set(ACCOUNTS_LEG, accounts.body());
+        ArrayNode errors = view.putArray("errors");
+        for (Leg leg : new Leg[]{bank, accounts}) {
+            if (leg.failed()) {
+                errors.addObject()
+                        .put("leg", leg.name())
+                        .put("statusCode", leg.status().value())
+                        .put("message", leg.error());
+            }
+        }
+
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        return response.writeWith(Mono.fromCallable(() -> response.bufferFactory().wrap(objectMapper.writeValueAsBytes(view))));
+    }
+
+    private record Leg(String name, JsonNode body, HttpStatus status, String error) {
+
+        boolean failed() {
+            return status != null;
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private String bankServiceUri = "http://bank-service";
+        private String accountServiceUri = "http://account-service";
+        private Duration legTimeout = Duration.ofSeconds(2);
+    }
+}
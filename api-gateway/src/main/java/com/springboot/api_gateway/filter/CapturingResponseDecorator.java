@@ -0,0 +1,95 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Copies the response body as it streams to the client and hands the complete response to a
+ * callback once the body has been written. Bodies larger than {@code maxBodyBytes} still stream
+ * through untouched but are not captured, and the partial copy is dropped as soon as the limit
+ * is crossed. The bytes held are reported to the exchange's {@link BufferedBytes.Tracker}.
+ *
+ * <p>Status and headers are copied as the body starts, before a decorator this one writes
+ * through, such as {@link CompressingResponseDecorator}, rewrites them for the encoding it applies
+ * to this client. The captured response is therefore always the service's own, and is encoded
+ * again for each client it is replayed to.
+ */
+class CapturingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private static final List<String> UNCAPTURED_HEADERS = List.of(
+            HttpHeaders.SET_COOKIE, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION);
+
+    private final int maxBodyBytes;
+    private final BufferedBytes.Tracker buffered;
+    private final Consumer<CapturedResponse> onCaptured;
+
+    CapturingResponseDecorator(ServerHttpResponse delegate, int maxBodyBytes, BufferedBytes.Tracker buffered,
+                               Consumer<CapturedResponse> onCaptured) {
+        super(delegate);
+        this.maxBodyBytes = maxBodyBytes;
+        this.buffered = buffered;
+        this.onCaptured = onCaptured;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (getStatusCode() == null || getHeaders().getContentLength() > maxBodyBytes) {
+            return super.writeWith(body);
+        }
+        HttpStatusCode status = getStatusCode();
+        HttpHeaders headers = copyHeaders(getHeaders());
+        ByteArrayOutputStream[] captured = {new ByteArrayOutputStream()};
+        Flux<DataBuffer> tee = Flux.<DataBuffer>from(body)
+                .doOnNext(buffer -> {
+                    if (captured[0] == null) {
+                        return;
+                    }
+                    int readable = buffer.readableByteCount();
+                    if (captured[0].size() + readable > maxBodyBytes) {
+                        buffered.release(captured[0].size());
+                        captured[0] = null;
+                        return;
+                    }
+                    int position = buffer.readPosition();
+                    byte[] bytes = new byte[readable];
+                    buffer.read(bytes);
+                    buffer.readPosition(position);
+                    captured[0].writeBytes(bytes);
+                    buffered.hold(readable);
+                })
+                .doOnComplete(() -> {
+                    if (captured[0] != null) {
+                        onCaptured.accept(new CapturedResponse(status, headers, captured[0].toByteArray()));
+                    }
+                })
+                .doFinally(signal -> {
+                    if (captured[0] != null) {
+                        buffered.release(captured[0].size());
+                        captured[0] = null;
+                    }
+                });
+        return super.writeWith(tee);
+    }
+
+    private static HttpHeaders copyHeaders(HttpHeaders headers) {
+        HttpHeaders copy = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (UNCAPTURED_HEADERS.stream().noneMatch(name::equalsIgnoreCase)) {
+                copy.put(name, new ArrayList<>(values));
+            }
+        });
+        return HttpHeaders.readOnlyHttpHeaders(copy);
+    }
+}
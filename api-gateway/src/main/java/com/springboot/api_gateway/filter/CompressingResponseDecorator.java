@@ -0,0 +1,129 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Gzip-encodes the response body when its content type is compressible, it is not already
+ * encoded and it is at least {@code minBytes} long. Without a {@code Content-Length} the first
+ * buffers are held back until either {@code minBytes} have arrived or the body has ended, so
+ * small streamed bodies are still sent as they are. Those held-back bytes are reported to the
+ * exchange's {@link BufferedBytes.Tracker}.
+ */
+class CompressingResponseDecorator extends ServerHttpResponseDecorator {
+
+    private static final String GZIP = "gzip";
+    private static final int CHUNK_SIZE = 8192;
+
+    private final long minBytes;
+    private final List<MediaType> mediaTypes;
+    private final GzipEncoder.Pool pool;
+    private final BufferedBytes.Tracker buffered;
+    private final Consumer<GzipEncoder> onEncoded;
+
+    CompressingResponseDecorator(ServerHttpResponse delegate, long minBytes, List<MediaType> mediaTypes,
+                                 GzipEncoder.Pool pool, BufferedBytes.Tracker buffered, Consumer<GzipEncoder> onEncoded) {
+        super(delegate);
+        this.minBytes = minBytes;
+        this.mediaTypes = mediaTypes;
+        this.pool = pool;
+        this.buffered = buffered;
+        this.onEncoded = onEncoded;
+    }
+
+    @Override
+    public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        HttpHeaders headers = getHeaders();
+        if (!isCompressible(getStatusCode(), headers)) {
+            return super.writeWith(body);
+        }
+        if (headers.getVary().stream().noneMatch(HttpHeaders.ACCEPT_ENCODING::equalsIgnoreCase)) {
+            headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        long contentLength = headers.getContentLength();
+        if (contentLength >= 0) {
+            return contentLength < minBytes ? super.writeWith(body) : super.writeWith(compress(Flux.from(body)));
+        }
+        Flux<DataBuffer> sized = Flux.<DataBuffer>from(body)
+                .bufferUntil(untilSize(minBytes, buffered))
+                .switchOnFirst((first, lists) -> {
+                    Flux<DataBuffer> buffers = lists.concatMapIterable(list -> list);
+                    if (!first.hasValue()) {
+                        return buffers;
+                    }
+                    long held = size(first.get());
+                    buffered.release(held);
+                    return held >= minBytes ? compress(buffers) : buffers;
+                });
+        return super.writeWith(sized);
+    }
+
+    @Override
+    public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWith(Flux.from(body).flatMapSequential(buffers -> buffers));
+    }
+
+    private boolean isCompressible(HttpStatusCode status, HttpHeaders headers) {
+        if (status != null && (status.value() == HttpStatus.NO_CONTENT.value() || status.value() == HttpStatus.NOT_MODIFIED.value())) {
+            return false;
+        }
+        if (headers.containsKey(HttpHeaders.CONTENT_ENCODING)) {
+            return false;
+        }
+        MediaType contentType = headers.getContentType();
+        // Events must reach the client as they are written, which a deflate stream would hold back.
+        if (contentType == null || MediaType.TEXT_EVENT_STREAM.includes(contentType)) {
+            return false;
+        }
+        return mediaTypes.stream().anyMatch(type -> type.includes(contentType));
+    }
+
+    private Flux<DataBuffer> compress(Flux<DataBuffer> body) {
+        HttpHeaders headers = getHeaders();
+        headers.set(HttpHeaders.CONTENT_ENCODING, GZIP);
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        String etag = headers.getETag();
+        if (etag != null && !etag.startsWith("W/")) {
+            // The encoded body is a different representation, so a strong validator no longer holds.
+            headers.setETag("W/" + etag);
+        }
+        return Flux.using(() -> new GzipEncoder(bufferFactory(), pool, CHUNK_SIZE),
+                encoder -> body.concatMapIterable(encoder::encode)
+                        .concatWith(Flux.defer(() -> Flux.fromIterable(encoder.finish())))
+                        .doOnComplete(() -> onEncoded.accept(encoder)),
+                GzipEncoder::release);
+    }
+
+    private static Predicate<DataBuffer> untilSize(long minBytes, BufferedBytes.Tracker buffered) {
+        long[] seen = {0};
+        return buffer -> {
+            if (seen[0] >= minBytes) {
+                return true;
+            }
+            seen[0] += buffer.readableByteCount();
+            buffered.hold(buffer.readableByteCount());
+            return seen[0] >= minBytes;
+        };
+    }
+
+    private static long size(List<DataBuffer> buffers) {
+        long size = 0;
+        for (DataBuffer buffer : buffers) {
+            size += buffer.readableByteCount();
+        }
+        return size;
+    }
+}
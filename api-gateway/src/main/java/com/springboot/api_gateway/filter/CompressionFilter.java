@@ -0,0 +1,124 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip-encodes responses for clients that accept it. Only bodies of a compressible content type
+ * that are at least {@code min-size} long are encoded, and anything the service already encoded
+ * is passed through. Declare it directly after {@code AuthenticationFilter} so the response
+ * cache and request coalescing keep working on the plain body.
+ *
+ * <p>Per route, {@code gateway.compression.bytes} counts bytes before ({@code direction=in}) and
+ * after ({@code direction=out}) encoding and {@code gateway.compression.time} the time spent in
+ * the deflater, which together give the bandwidth saved against the CPU it costs.
+ */
+@Component
+public class CompressionFilter extends AbstractGatewayFilterFactory<CompressionFilter.Config> {
+
+    private static final String GZIP = "gzip";
+
+    private final MeterRegistry meterRegistry;
+
+    public CompressionFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long minBytes = config.getMinSize().toBytes();
+        List<MediaType> mediaTypes = config.getMimeTypes().stream().map(MediaType::parseMediaType).toList();
+        GzipEncoder.Pool pool = new GzipEncoder.Pool(config.getLevel(), config.getPoolSize());
+        Counter bytesIn = bytes(config.getRouteId(), "in");
+        Counter bytesOut = bytes(config.getRouteId(), "out");
+        Timer time = Timer.builder("gateway.compression.time")
+                .description("Time spent gzip-encoding response bodies")
+                .tag("route", String.valueOf(config.getRouteId()))
+                .register(meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (exchange.getRequest().getMethod() == HttpMethod.HEAD
+                    || !acceptsGzip(exchange.getRequest().getHeaders().get(HttpHeaders.ACCEPT_ENCODING))) {
+                return chain.filter(exchange);
+            }
+            CompressingResponseDecorator response = new CompressingResponseDecorator(exchange.getResponse(), minBytes,
+                    mediaTypes, pool, BufferedBytes.of(exchange), encoder -> {
+                        bytesIn.increment(encoder.bytesIn());
+                        bytesOut.increment(encoder.bytesOut());
+                        time.record(encoder.nanos(), TimeUnit.NANOSECONDS);
+                    });
+            return chain.filter(exchange.mutate().response(response).build());
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private Counter bytes(String routeId, String direction) {
+        return Counter.builder("gateway.compression.bytes")
+                .description("Response body bytes before and after gzip encoding")
+                .baseUnit("bytes")
+                .tag("route", String.valueOf(routeId))
+                .tag("direction", direction)
+                .register(meterRegistry);
+    }
+
+    /**
+     * True when an {@code Accept-Encoding} value names {@code gzip} or {@code *} with a
+     * non-zero quality.
+     */
+    static boolean acceptsGzip(List<String> acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String header : acceptEncoding) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim();
+                if ((name.equalsIgnoreCase(GZIP) || name.equals("*")) && quality(parts) > 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private DataSize minSize = DataSize.ofKilobytes(2);
+        private int level = Deflater.DEFAULT_COMPRESSION;
+        private int poolSize = Runtime.getRuntime().availableProcessors() * 2;
+        private List<String> mimeTypes = new ArrayList<>(List.of(
+                "application/json", "application/*+json", "application/xml", "application/*+xml", "text/*"));
+    }
+}
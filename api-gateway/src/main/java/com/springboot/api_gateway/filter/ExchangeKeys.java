@@ -0,0 +1,34 @@
+package com.springboot.api_gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Keys shared by the filters that keep per-client state.
+ */
+final class ExchangeKeys {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private ExchangeKeys() {
+        throw new UnsupportedOperationException("This is a util class and cannot be instantiated");
+    }
+
+    /**
+     * The verified subject stored by {@link AuthenticationFilter}, or {@code null} on open paths.
+     */
+    static String subject(ServerWebExchange exchange) {
+        Claims claims = exchange.getAttribute(AuthenticationFilter.CLAIMS_ATTR);
+        return claims != null ? claims.getSubject() : null;
+    }
+
+    /**
+     * Identifies a read by who asked and exactly what they asked for: subject, path and query.
+     */
+    static String subjectScopedRequest(ServerWebExchange exchange, String path) {
+        String subject = subject(exchange);
+        String query = exchange.getRequest().getURI().getRawQuery();
+        StringBuilder key = new StringBuilder(subject != null ? subject : ANONYMOUS).append(' ').append(path);
+        return query == null ? key.toString() : key.append('?').append(query).toString();
+    }
+}
@@ -0,0 +1,175 @@
+package com.springboot.api_gateway.filter;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.core.io.buffer.DataBufferUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip-encodes one response body. Input buffers are deflated straight from their backing
+ * memory and the output is written into buffers from the response's own factory, which is the
+ * pooled Netty allocator in production; full output buffers are handed on as they fill so a
+ * large body never has to be held twice. Deflaters hold native zlib state and are borrowed from
+ * a {@link Pool}.
+ */
+final class GzipEncoder {
+
+    private static final byte[] HEADER = {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int TRAILER_LENGTH = 8;
+
+    private final DataBufferFactory bufferFactory;
+    private final Pool pool;
+    private final int chunkSize;
+    private final CRC32 crc = new CRC32();
+    private Deflater deflater;
+    private DataBuffer current;
+    private long bytesIn;
+    private long bytesOut;
+    private long nanos;
+
+    GzipEncoder(DataBufferFactory bufferFactory, Pool pool, int chunkSize) {
+        this.bufferFactory = bufferFactory;
+        this.pool = pool;
+        this.chunkSize = chunkSize;
+        this.deflater = pool.borrow();
+        this.current = bufferFactory.allocateBuffer(chunkSize);
+        this.current.write(HEADER);
+    }
+
+    /**
+     * Deflates {@code input}, releasing it, and returns the output buffers that filled up.
+     */
+    synchronized List<DataBuffer> encode(DataBuffer input) {
+        List<DataBuffer> full = new ArrayList<>(1);
+        try {
+            if (deflater == null) {
+                return full;
+            }
+            long start = System.nanoTime();
+            bytesIn += input.readableByteCount();
+            try (DataBuffer.ByteBufferIterator buffers = input.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    ByteBuffer buffer = buffers.next();
+                    crc.update(buffer.duplicate());
+                    deflater.setInput(buffer);
+                    while (!deflater.needsInput()) {
+                        deflate(full);
+                    }
+                }
+            }
+            nanos += System.nanoTime() - start;
+            return full;
+        } finally {
+            DataBufferUtils.release(input);
+        }
+    }
+
+    /**
+     * Flushes the deflater and returns the remaining output, gzip trailer included.
+     */
+    synchronized List<DataBuffer> finish() {
+        List<DataBuffer> remaining = new ArrayList<>(2);
+        if (deflater == null) {
+            return remaining;
+        }
+        long start = System.nanoTime();
+        deflater.finish();
+        while (!deflater.finished()) {
+            deflate(remaining);
+        }
+        if (current.writableByteCount() < TRAILER_LENGTH) {
+            remaining.add(current);
+            bytesOut += current.readableByteCount();
+            current = bufferFactory.allocateBuffer(TRAILER_LENGTH);
+        }
+        writeIntLittleEndian((int) crc.getValue());
+        writeIntLittleEndian((int) bytesIn);
+        bytesOut += current.readableByteCount();
+        remaining.add(current);
+        current = null;
+        nanos += System.nanoTime() - start;
+        return remaining;
+    }
+
+    /**
+     * Returns the deflater to the pool and drops unsent output. Safe to call more than once,
+     * and from a cancelling thread while the body is still being encoded.
+     */
+    synchronized void release() {
+        if (deflater != null) {
+            pool.giveBack(deflater);
+            deflater = null;
+        }
+        if (current != null) {
+            DataBufferUtils.release(current);
+            current = null;
+        }
+    }
+
+    long bytesIn() {
+        return bytesIn;
+    }
+
+    long bytesOut() {
+        return bytesOut;
+    }
+
+    long nanos() {
+        return nanos;
+    }
+
+    private void deflate(List<DataBuffer> full) {
+        if (current.writableByteCount() == 0) {
+            full.add(current);
+            bytesOut += current.readableByteCount();
+            current = bufferFactory.allocateBuffer(chunkSize);
+        }
+        int written;
+        try (DataBuffer.ByteBufferIterator buffers = current.writableByteBuffers()) {
+            written = deflater.deflate(buffers.next());
+        }
+        current.writePosition(current.writePosition() + written);
+    }
+
+    private void writeIntLittleEndian(int value) {
+        current.write(new byte[]{(byte) value, (byte) (value >>> 8), (byte) (value >>> 16), (byte) (value >>> 24)});
+    }
+
+    /**
+     * Bounded pool of deflaters at one compression level. A deflater given back while the pool
+     * is full is ended instead, so a burst does not leave its native memory pinned.
+     */
+    static final class Pool {
+
+        private final int level;
+        private final BlockingQueue<Deflater> idle;
+
+        Pool(int level, int capacity) {
+            this.level = level;
+            this.idle = new ArrayBlockingQueue<>(capacity);
+        }
+
+        Deflater borrow() {
+            Deflater deflater = idle.poll();
+            return deflater != null ? deflater : new Deflater(level, true);
+        }
+
+        void giveBack(Deflater deflater) {
+            deflater.reset();
+            if (!idle.offer(deflater)) {
+                deflater.end();
+            }
+        }
+
+        int idle() {
+            return idle.size();
+        }
+    }
+}
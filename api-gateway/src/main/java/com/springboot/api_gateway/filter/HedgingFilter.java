@@ -0,0 +1,270 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.loadbalancer.LatencyAwareLoadBalancer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycleValidator;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.ResponseData;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebExchangeDecorator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ORIGINAL_REQUEST_URL_ATTR;
+
+/**
+ * Sends a second copy of an idempotent GET or HEAD to another instance when the first has not
+ * started answering within the route's recent {@code latency-percentile}, or right away when the
+ * first attempt fails. The race is decided on the response headers: the attempt that answers
+ * first is streamed to the client and the other is cancelled, so no body is buffered and large
+ * responses pass through with backpressure. Second attempts draw on a per-route
+ * {@link RetryBudget}, so during an outage they add at most {@code budget-ratio} of the route's
+ * traffic.
+ */
+@Component
+public class HedgingFilter extends AbstractGatewayFilterFactory<HedgingFilter.Config> {
+
+    private static final long PERCENTILE_REFRESH_NANOS = Duration.ofSeconds(1).toNanos();
+
+    private final LoadBalancerClientFactory clientFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Route> routesById = new ConcurrentHashMap<>();
+
+    public HedgingFilter(LoadBalancerClientFactory clientFactory, MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.clientFactory = clientFactory;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        // Routes are rebuilt on every refresh, which discovery heartbeats trigger routinely; keeping
+        // the latencies and budget across them lets the percentile see enough requests to be useful.
+        Route route = routesById.compute(config.getRouteId(), (id, existing) ->
+                existing != null && existing.config.equals(config) ? existing : new Route(config));
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            HttpMethod method = exchange.getRequest().getMethod();
+            if (method != HttpMethod.GET && method != HttpMethod.HEAD) {
+                return chain.filter(exchange);
+            }
+            route.budget.deposit();
+            long start = System.nanoTime();
+            long hedgeDelay = route.latencies.percentile(start);
+            HedgedRequest request = new HedgedRequest(route, exchange, chain);
+            Mono<AttemptExchange> hedge = hedgeDelay < 0
+                    ? Mono.never()
+                    : request.hedgeAfter(Duration.ofNanos(Math.max(hedgeDelay, config.getMinDelay().toNanos())));
+            return Mono.firstWithSignal(request.primary(), hedge)
+                    .flatMap(attempt -> {
+                        route.latencies.record(System.nanoTime() - start);
+                        // What the winner resolved, such as its instance and request URL, is what
+                        // filters wrapping this one should see on the client's exchange.
+                        exchange.getAttributes().putAll(attempt.getAttributes());
+                        return attempt.response.writeTo(exchange.getResponse());
+                    });
+        }, RouteFilterOrder.ORDER);
+    }
+
+    /**
+     * Tells the load balancer that a cancelled attempt is no longer outstanding; the gateway's
+     * load balancer filter only reports attempts that complete.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private void abandoned(ServerWebExchange attempt) {
+        Response<ServiceInstance> lbResponse = attempt.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+        if (lbResponse == null || !lbResponse.hasServer() || clientFactory == null) {
+            return;
+        }
+        Set<LoadBalancerLifecycle> lifecycles = LoadBalancerLifecycleValidator.getSupportedLifecycleProcessors(
+                clientFactory.getInstances(lbResponse.getServer().getServiceId(), LoadBalancerLifecycle.class),
+                RequestDataContext.class, ResponseData.class, ServiceInstance.class);
+        CompletionContext<ResponseData, ServiceInstance, RequestDataContext> discarded =
+                new CompletionContext<>(CompletionContext.Status.DISCARD, null, lbResponse);
+        lifecycles.forEach(lifecycle -> lifecycle.onComplete(discarded));
+    }
+
+    private final class Route {
+
+        private final Config config;
+        private final LatencyReservoir latencies;
+        private final RetryBudget budget;
+        private final Counter slowHedges;
+        private final Counter failureRetries;
+        private final Counter hedgesWon;
+        private final Counter denied;
+
+        private Route(Config config) {
+            this.config = config;
+            this.latencies = new LatencyReservoir(config.getLatencyPercentile(), PERCENTILE_REFRESH_NANOS);
+            this.budget = new RetryBudget(config.getBudgetRatio(), config.getBudgetMaxTokens());
+            String routeId = String.valueOf(config.getRouteId());
+            this.slowHedges = issued(routeId, "slow");
+            this.failureRetries = issued(routeId, "failed");
+            this.hedgesWon = Counter.builder("gateway.hedging.won")
+                    .description("Hedged attempts that answered before the original attempt")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+            this.denied = Counter.builder("gateway.hedging.denied")
+                    .description("Second attempts not sent because the route's retry budget was exhausted")
+                    .tag("route", routeId)
+                    .register(meterRegistry);
+        }
+
+        private Counter issued(String routeId, String reason) {
+            return Counter.builder("gateway.hedging.issued")
+                    .description("Second attempts sent to another instance")
+                    .tag("route", routeId)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * One client request and its attempts. Exactly one attempt's outcome reaches the client: an
+     * attempt that fails while the other is still running stays silent and leaves the answer to it.
+     */
+    private final class HedgedRequest {
+
+        private final Route route;
+        private final ServerWebExchange exchange;
+        private final GatewayFilterChain chain;
+        private final AtomicInteger running = new AtomicInteger(1);
+        private final AtomicBoolean secondAttempt = new AtomicBoolean();
+        private volatile AttemptExchange primary;
+
+        private HedgedRequest(Route route, ServerWebExchange exchange, GatewayFilterChain chain) {
+            this.route = route;
+            this.exchange = exchange;
+            this.chain = chain;
+        }
+
+        private Mono<AttemptExchange> primary() {
+            return attempt().onErrorResume(error -> {
+                if (running.decrementAndGet() > 0) {
+                    return Mono.never();
+                }
+                if (!startSecondAttempt()) {
+                    return Mono.error(error);
+                }
+                route.failureRetries.increment();
+                return secondAttempt();
+            });
+        }
+
+        private Mono<AttemptExchange> hedgeAfter(Duration delay) {
+            return Mono.delay(delay).then(Mono.defer(() -> {
+                if (!startSecondAttempt()) {
+                    return Mono.never();
+                }
+                route.slowHedges.increment();
+                return secondAttempt().doOnNext(attempt -> route.hedgesWon.increment());
+            }));
+        }
+
+        private boolean startSecondAttempt() {
+            if (!secondAttempt.compareAndSet(false, true)) {
+                return false;
+            }
+            if (!route.budget.tryWithdraw()) {
+                route.denied.increment();
+                return false;
+            }
+            running.incrementAndGet();
+            return true;
+        }
+
+        private Mono<AttemptExchange> secondAttempt() {
+            return attempt().onErrorResume(error -> running.decrementAndGet() > 0 ? Mono.never() : Mono.error(error));
+        }
+
+        private Mono<AttemptExchange> attempt() {
+            return Mono.defer(() -> {
+                AttemptExchange attempt = new AttemptExchange(exchange,
+                        new PendingServerHttpResponse(exchange.getResponse().bufferFactory()));
+                if (primary == null) {
+                    primary = attempt;
+                } else {
+                    Response<ServiceInstance> first = primary.getAttribute(GATEWAY_LOADBALANCER_RESPONSE_ATTR);
+                    if (first != null && first.hasServer()) {
+                        attempt.getAttributes().put(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR, first.getServer());
+                    }
+                }
+                // Runs detached from the race: the winner's chain only completes once its body has
+                // been forwarded, long after the race was decided.
+                Disposable running = chain.filter(attempt)
+                        .subscribe(null, attempt.response::failed, attempt.response::completed);
+                return attempt.response.ready()
+                        .map(response -> attempt)
+                        .doOnCancel(() -> {
+                            running.dispose();
+                            abandoned(attempt);
+                        });
+            });
+        }
+    }
+
+    /**
+     * Runs the rest of the chain against a private response and a private copy of the exchange
+     * attributes, so two attempts can route and write concurrently without seeing each other.
+     * The gateway's response write, which runs after this filter, keeps its connection in these
+     * attributes too; the winner's are copied to the client's exchange once it has won.
+     */
+    private static final class AttemptExchange extends ServerWebExchangeDecorator {
+
+        private final PendingServerHttpResponse response;
+        private final Map<String, Object> attributes;
+
+        private AttemptExchange(ServerWebExchange delegate, PendingServerHttpResponse response) {
+            super(delegate);
+            this.response = response;
+            this.attributes = new ConcurrentHashMap<>(delegate.getAttributes());
+            Object originalUrls = attributes.get(GATEWAY_ORIGINAL_REQUEST_URL_ATTR);
+            if (originalUrls instanceof Set<?> urls) {
+                attributes.put(GATEWAY_ORIGINAL_REQUEST_URL_ATTR, new LinkedHashSet<>(urls));
+            }
+        }
+
+        @Override
+        public ServerHttpResponse getResponse() {
+            return response;
+        }
+
+        @Override
+        public Map<String, Object> getAttributes() {
+            return attributes;
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private double latencyPercentile = 0.95;
+        private Duration minDelay = Duration.ofMillis(10);
+        private double budgetRatio = 0.1;
+        private int budgetMaxTokens = 10;
+    }
+}
@@ -0,0 +1,57 @@
+package com.springboot.api_gateway.filter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The most recent request latencies of a route in a fixed ring, with one percentile of them
+ * recomputed at most once per {@code refreshNanos} so reading it stays cheap on the hot path.
+ */
+final class LatencyReservoir {
+
+    private static final int CAPACITY = 1024;
+    private static final int MIN_SAMPLES = 100;
+
+    private final AtomicLongArray samples = new AtomicLongArray(CAPACITY);
+    private final AtomicLong recorded = new AtomicLong();
+    private final double quantile;
+    private final long refreshNanos;
+
+    private volatile long percentileNanos = -1;
+    private volatile long computedAtNanos;
+
+    LatencyReservoir(double quantile, long refreshNanos) {
+        if (quantile <= 0 || quantile >= 1) {
+            throw new IllegalArgumentException("Latency percentile must be between 0 and 1");
+        }
+        this.quantile = quantile;
+        this.refreshNanos = refreshNanos;
+    }
+
+    void record(long latencyNanos) {
+        samples.set((int) (recorded.getAndIncrement() & (CAPACITY - 1)), latencyNanos);
+    }
+
+    /**
+     * Returns the configured percentile of the recent latencies, or -1 until enough requests
+     * have been seen to estimate it.
+     */
+    long percentile(long nowNanos) {
+        long count = recorded.get();
+        if (count < MIN_SAMPLES) {
+            return -1;
+        }
+        if (percentileNanos < 0 || nowNanos - computedAtNanos >= refreshNanos) {
+            int size = (int) Math.min(count, CAPACITY);
+            long[] sorted = new long[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = samples.get(i);
+            }
+            Arrays.sort(sorted);
+            percentileNanos = sorted[(int) Math.min(size - 1, Math.ceil(quantile * size) - 1)];
+            computedAtNanos = nowNanos;
+        }
+        return percentileNanos;
+    }
+}
@@ -0,0 +1,103 @@
+package com.springboot.api_gateway.filter;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Segment-wise prefix trie of open paths. {@code /auth/token} matches {@code /auth/token} and
+ * {@code /auth/token/...} but not {@code /auth/tokens} or {@code /bank/auth/token}.
+ * Lookups walk the raw path in place and do not allocate.
+ */
+final class PathPrefixTrie {
+
+    static final PathPrefixTrie EMPTY = new PathPrefixTrie();
+
+    private String[] segments = new String[0];
+    private PathPrefixTrie[] children = new PathPrefixTrie[0];
+    private boolean terminal;
+
+    private PathPrefixTrie() {
+    }
+
+    static PathPrefixTrie of(Collection<String> prefixes) {
+        if (prefixes.isEmpty()) {
+            return EMPTY;
+        }
+        PathPrefixTrie root = new PathPrefixTrie();
+        prefixes.forEach(root::add);
+        return root;
+    }
+
+    private void add(String prefix) {
+        PathPrefixTrie node = this;
+        for (String segment : prefix.trim().split("/")) {
+            if (!segment.isEmpty()) {
+                node = node.childOrCreate(segment);
+            }
+        }
+        node.terminal = true;
+    }
+
+    boolean matches(String path) {
+        PathPrefixTrie node = this;
+        int length = path.length();
+        int start = 0;
+        while (true) {
+            if (node.terminal) {
+                return !hasDotSegment(path, start);
+            }
+            while (start < length && path.charAt(start) == '/') {
+                start++;
+            }
+            if (start >= length) {
+                return false;
+            }
+            int end = path.indexOf('/', start);
+            if (end < 0) {
+                end = length;
+            }
+            node = node.child(path, start, end - start);
+            if (node == null) {
+                return false;
+            }
+            start = end;
+        }
+    }
+
+    private PathPrefixTrie child(String path, int offset, int length) {
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.length() == length && path.regionMatches(offset, segment, 0, length)) {
+                return children[i];
+            }
+        }
+        return null;
+    }
+
+    private PathPrefixTrie childOrCreate(String segment) {
+        PathPrefixTrie child = child(segment, 0, segment.length());
+        if (child == null) {
+            child = new PathPrefixTrie();
+            segments = Arrays.copyOf(segments, segments.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            segments[segments.length - 1] = segment;
+            children[children.length - 1] = child;
+        }
+        return child;
+    }
+
+    /**
+     * An open prefix must not be usable to climb back out with {@code ..} segments.
+     */
+    private static boolean hasDotSegment(String path, int from) {
+        int index = path.indexOf("/..", from);
+        while (index >= 0) {
+            int after = index + 3;
+            if (after == path.length() || path.charAt(after) == '/') {
+                return true;
+            }
+            index = path.indexOf("/..", after);
+        }
+        return false;
+    }
+}
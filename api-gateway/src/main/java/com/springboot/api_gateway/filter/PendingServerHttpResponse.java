@@ -0,0 +1,88 @@
+package com.springboot.api_gateway.filter;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.AbstractServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+/**
+ * Response of one attempt that is held back until the caller decides whether it reaches the
+ * client. {@link #ready()} signals as soon as the attempt starts writing, with the status and
+ * headers in place but none of the body read; {@link #writeTo} then forwards the body as it
+ * arrives, so it streams with backpressure however large it is. The attempt's own write
+ * completes once forwarding does.
+ */
+class PendingServerHttpResponse extends AbstractServerHttpResponse {
+
+    private final Sinks.One<PendingServerHttpResponse> ready = Sinks.one();
+    private final Sinks.Empty<Void> forwarded = Sinks.empty();
+    private volatile Publisher<? extends DataBuffer> body;
+
+    PendingServerHttpResponse(DataBufferFactory bufferFactory) {
+        super(bufferFactory);
+    }
+
+    @Override
+    protected Mono<Void> writeWithInternal(Publisher<? extends DataBuffer> body) {
+        this.body = body;
+        ready.tryEmitValue(this);
+        return forwarded.asMono();
+    }
+
+    @Override
+    protected Mono<Void> writeAndFlushWithInternal(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+        return writeWithInternal(Flux.from(body).concatMap(Flux::from));
+    }
+
+    @Override
+    protected void applyStatusCode() {
+    }
+
+    @Override
+    protected void applyHeaders() {
+    }
+
+    @Override
+    protected void applyCookies() {
+    }
+
+    @Override
+    public <T> T getNativeResponse() {
+        throw new IllegalStateException("A pending response has no native response");
+    }
+
+    /**
+     * Emits this response once the attempt starts writing its body or finishes without one,
+     * or the attempt's error if it failed first.
+     */
+    Mono<PendingServerHttpResponse> ready() {
+        return ready.asMono();
+    }
+
+    void completed() {
+        ready.tryEmitValue(this);
+    }
+
+    void failed(Throwable error) {
+        ready.tryEmitError(error);
+    }
+
+    Mono<Void> writeTo(ServerHttpResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(getHeaders());
+        headers.remove(HttpHeaders.TRANSFER_ENCODING);
+        headers.remove(HttpHeaders.CONNECTION);
+        response.setStatusCode(getStatusCode());
+        response.getHeaders().addAll(headers);
+        Publisher<? extends DataBuffer> pending = body;
+        Mono<Void> write = pending != null ? response.writeWith(pending) : response.setComplete();
+        return write
+                .doOnError(forwarded::tryEmitError)
+                .doFinally(signal -> forwarded.tryEmitEmpty());
+    }
+}
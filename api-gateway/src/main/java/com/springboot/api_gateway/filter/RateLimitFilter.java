@@ -0,0 +1,71 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.exception.ErrorResponse;
+import com.springboot.api_gateway.util.TokenBucketTable;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-route token-bucket rate limiting keyed by the authenticated subject, or by client address
+ * on open paths where {@link AuthenticationFilter} has not stored any claims. Declare it after
+ * {@code AuthenticationFilter} in the route's filter list.
+ */
+@Component
+public class RateLimitFilter extends AbstractGatewayFilterFactory<RateLimitFilter.Config> {
+
+    private static final ErrorResponse TOO_MANY_REQUESTS =
+            new ErrorResponse(HttpStatus.TOO_MANY_REQUESTS, "Too many requests, please retry later");
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    public RateLimitFilter() {
+        super(Config.class);
+    }
+
+    @Override
+    public List<String> shortcutFieldOrder() {
+        return List.of("replenishRate", "burstCapacity");
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        TokenBucketTable buckets = new TokenBucketTable(config.getReplenishRate(), config.getBurstCapacity(), config.getMaxKeys());
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            long waitNanos = buckets.tryAcquire(key(exchange));
+            if (waitNanos == 0) {
+                return chain.filter(exchange);
+            }
+            long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+            exchange.getResponse().getHeaders().set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            return TOO_MANY_REQUESTS.writeTo(exchange);
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private static String key(ServerWebExchange exchange) {
+        String subject = ExchangeKeys.subject(exchange);
+        if (subject != null) {
+            return subject;
+        }
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    @Data
+    public static class Config {
+        private double replenishRate = 10;
+        private int burstCapacity = 20;
+        private long maxKeys = 100_000;
+    }
+}
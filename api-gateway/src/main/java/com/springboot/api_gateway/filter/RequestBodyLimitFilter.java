@@ -0,0 +1,101 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.exception.ErrorResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Caps the request body of a route at {@code max-size}. A declared {@code Content-Length} over
+ * the cap is refused before anything is read; a body without one is counted while it streams to
+ * the service and the request fails with 413 the moment the cap is crossed, so the gateway never
+ * has to hold the body to measure it.
+ */
+@Component
+public class RequestBodyLimitFilter extends AbstractGatewayFilterFactory<RequestBodyLimitFilter.Config> {
+
+    private static final ErrorResponse TOO_LARGE = new ErrorResponse(HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestBodyLimitFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        long maxBytes = config.getMaxSize().toBytes();
+        Counter rejected = Counter.builder("gateway.request.body.rejected")
+                .description("Requests refused because their body exceeded the route's limit")
+                .tag("route", String.valueOf(config.getRouteId()))
+                .register(meterRegistry);
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            long contentLength = exchange.getRequest().getHeaders().getContentLength();
+            if (contentLength > maxBytes) {
+                rejected.increment();
+                return TOO_LARGE.writeTo(exchange);
+            }
+            if (contentLength >= 0) {
+                return chain.filter(exchange);
+            }
+            return chain.filter(exchange.mutate().request(new LimitedRequest(exchange.getRequest(), maxBytes)).build())
+                    .onErrorResume(BodyTooLargeException.class, error -> {
+                        rejected.increment();
+                        return exchange.getResponse().isCommitted() ? Mono.error(error) : TOO_LARGE.writeTo(exchange);
+                    });
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private static final class LimitedRequest extends ServerHttpRequestDecorator {
+
+        private final long maxBytes;
+
+        private LimitedRequest(ServerHttpRequest delegate, long maxBytes) {
+            super(delegate);
+            this.maxBytes = maxBytes;
+        }
+
+        @Override
+        public Flux<DataBuffer> getBody() {
+            long[] seen = {0};
+            return super.getBody().handle((buffer, sink) -> {
+                seen[0] += buffer.readableByteCount();
+                if (seen[0] > maxBytes) {
+                    DataBufferUtils.release(buffer);
+                    sink.error(new BodyTooLargeException());
+                } else {
+                    sink.next(buffer);
+                }
+            });
+        }
+    }
+
+    private static final class BodyTooLargeException extends ResponseStatusException {
+
+        private BodyTooLargeException() {
+            super(HttpStatus.PAYLOAD_TOO_LARGE, "Request body is too large");
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private DataSize maxSize = DataSize.ofMegabytes(1);
+    }
+}
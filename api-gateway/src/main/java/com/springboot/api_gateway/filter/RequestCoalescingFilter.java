@@ -0,0 +1,96 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collapses identical concurrent GETs (same route, subject, path and query) into one downstream
+ * call. The first request goes downstream and its response is replayed to every request that
+ * arrived while it was in flight. A waiting request falls back to its own downstream call if the
+ * leader takes longer than {@code max-wait}, fails, or returns a body over {@code max-body-size}.
+ */
+@Component
+public class RequestCoalescingFilter extends AbstractGatewayFilterFactory<RequestCoalescingFilter.Config> {
+
+    private static final CapturedResponse NOT_SHARED = new CapturedResponse(null, null, null);
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestCoalescingFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<String, Sinks.One<CapturedResponse>> inFlight = new ConcurrentHashMap<>();
+        int maxBodyBytes = (int) config.getMaxBodySize().toBytes();
+        Counter leaders = counter(config, "leader");
+        Counter coalesced = counter(config, "coalesced");
+        Counter fallbacks = counter(config, "fallback");
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+            String key = ExchangeKeys.subjectScopedRequest(exchange, exchange.getRequest().getPath().pathWithinApplication().value());
+            Sinks.One<CapturedResponse> leader = Sinks.one();
+            Sinks.One<CapturedResponse> existing = inFlight.putIfAbsent(key, leader);
+
+            if (existing != null) {
+                return existing.asMono()
+                        .timeout(config.getMaxWait(), Mono.just(NOT_SHARED))
+                        .flatMap(response -> {
+                            if (response == NOT_SHARED) {
+                                fallbacks.increment();
+                                return chain.filter(exchange);
+                            }
+                            coalesced.increment();
+                            return response.writeTo(exchange.getResponse());
+                        });
+            }
+
+            leaders.increment();
+            CapturedResponse[] captured = {NOT_SHARED};
+            CapturingResponseDecorator response = new CapturingResponseDecorator(
+                    exchange.getResponse(), maxBodyBytes, BufferedBytes.of(exchange), complete -> captured[0] = complete);
+            Runnable release = () -> {
+                inFlight.remove(key, leader);
+                leader.tryEmitValue(captured[0]);
+            };
+            return chain.filter(exchange.mutate().response(response).build())
+                    .doOnTerminate(release)
+                    .doOnCancel(release);
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private Counter counter(Config config, String result) {
+        return Counter.builder("gateway.coalescing.requests")
+                .description("GET requests by whether they went downstream or shared another request's response")
+                .tag("route", String.valueOf(config.getRouteId()))
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration maxWait = Duration.ofSeconds(5);
+        private DataSize maxBodySize = DataSize.ofMegabytes(1);
+    }
+}
@@ -0,0 +1,102 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.OrderedGatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.cloud.gateway.support.HasRouteId;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Opt-in response cache for read-heavy routes. Successful GET responses are cached per
+ * subject, and any POST, PUT, PATCH or DELETE through the route evicts the cached responses on
+ * the same path branch, plus everything cached for the routes listed in
+ * {@code invalidate-routes}. Declare it after {@code AuthenticationFilter} so entries can be
+ * partitioned by subject.
+ */
+@Component
+public class ResponseCacheFilter extends AbstractGatewayFilterFactory<ResponseCacheFilter.Config> {
+
+    private static final Set<HttpMethod> WRITE_METHODS = Set.of(
+            HttpMethod.POST, HttpMethod.PUT, HttpMethod.PATCH, HttpMethod.DELETE);
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, RouteResponseCache> cachesByRoute = new ConcurrentHashMap<>();
+
+    public ResponseCacheFilter(MeterRegistry meterRegistry) {
+        super(Config.class);
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        String routeId = config.getRouteId();
+        RouteResponseCache cache = cachesByRoute.compute(routeId, (id, existing) -> {
+            if (existing != null && existing.hasSettings(config.getTimeToLive(), config.getMaxSize().toBytes())) {
+                return existing;
+            }
+            if (existing != null) {
+                existing.close(meterRegistry);
+            }
+            return new RouteResponseCache(id, config.getTimeToLive(), config.getMaxSize().toBytes(), meterRegistry);
+        });
+        int maxEntryBytes = (int) config.getMaxEntrySize().toBytes();
+
+        return new OrderedGatewayFilter((exchange, chain) -> {
+            ServerHttpRequest request = exchange.getRequest();
+            String path = request.getPath().pathWithinApplication().value();
+            if (WRITE_METHODS.contains(request.getMethod())) {
+                return chain.filter(exchange).doFinally(signal -> invalidate(cache, path, config.getInvalidateRoutes()));
+            }
+            if (request.getMethod() != HttpMethod.GET) {
+                return chain.filter(exchange);
+            }
+
+            String key = ExchangeKeys.subjectScopedRequest(exchange, path);
+            RouteResponseCache.CachedResponse cached = cache.get(key);
+            if (cached != null) {
+                return cached.response().writeTo(exchange.getResponse());
+            }
+            long generation = cache.generation();
+            CapturingResponseDecorator response = new CapturingResponseDecorator(exchange.getResponse(), maxEntryBytes,
+                    BufferedBytes.of(exchange), captured -> {
+                        if (HttpStatus.OK.equals(captured.status())) {
+                            cache.put(key, new RouteResponseCache.CachedResponse(path, captured), generation);
+                        }
+                    });
+            return chain.filter(exchange.mutate().response(response).build());
+        }, RouteFilterOrder.ORDER);
+    }
+
+    private void invalidate(RouteResponseCache cache, String path, List<String> invalidateRoutes) {
+        cache.invalidate(path);
+        for (String routeId : invalidateRoutes) {
+            RouteResponseCache other = cachesByRoute.get(routeId);
+            if (other != null) {
+                other.invalidateAll();
+            }
+        }
+    }
+
+    @Data
+    public static class Config implements HasRouteId {
+        private String routeId;
+        private Duration timeToLive = Duration.ofSeconds(30);
+        private DataSize maxSize = DataSize.ofMegabytes(16);
+        private DataSize maxEntrySize = DataSize.ofKilobytes(512);
+        private List<String> invalidateRoutes = new ArrayList<>();
+    }
+}
@@ -0,0 +1,19 @@
+package com.springboot.api_gateway.filter;
+
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+
+/**
+ * The order this gateway's route filters run at. A route filter without an order is placed by
+ * its position in the route, after {@link NettyWriteResponseFilter}, which by then holds the
+ * exchange it will write the service's response to; a response decorated that late is never
+ * written through. These filters all run just ahead of it instead, and since they share one
+ * order a route still runs them in the order it declares them.
+ */
+final class RouteFilterOrder {
+
+    static final int ORDER = NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+
+    private RouteFilterOrder() {
+        throw new UnsupportedOperationException("This is a util class and cannot be instantiated");
+    }
+}
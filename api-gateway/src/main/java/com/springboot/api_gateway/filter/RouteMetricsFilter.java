@@ -0,0 +1,97 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import com.springboot.api_gateway.metrics.RouteHistograms;
+import org.reactivestreams.Publisher;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Records latency and request/response body sizes of every routed exchange into
+ * {@link RouteHistograms}. Runs first so the latency covers every gateway filter. Sizes come
+ * from {@code Content-Length} where it is known; streamed response bodies are counted as they
+ * are written. It also opens the exchange's {@link BufferedBytes} tracker.
+ */
+@Component
+public class RouteMetricsFilter implements GlobalFilter, Ordered {
+
+    private final RouteHistograms histograms;
+    private final BufferedBytes bufferedBytes;
+
+    public RouteMetricsFilter(RouteHistograms histograms, BufferedBytes bufferedBytes) {
+        this.histograms = histograms;
+        this.bufferedBytes = bufferedBytes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        long start = System.nanoTime();
+        long requestBytes = exchange.getRequest().getHeaders().getContentLength();
+        SizeCountingResponse response = new SizeCountingResponse(exchange.getResponse());
+        BufferedBytes.Tracker buffered = bufferedBytes.start(exchange, route.getId());
+        return chain.filter(exchange.mutate().response(response).build())
+                .doOnSuccess(done -> record(route, status(response.getStatusCode()), start, requestBytes, response))
+                .doOnError(error -> record(route, status(error), start, requestBytes, response))
+                .doFinally(signal -> buffered.close());
+    }
+
+    private void record(Route route, int status, long start, long requestBytes, SizeCountingResponse response) {
+        // A request without Content-Length (-1) has an unknown size, which RouteHistograms leaves out.
+        histograms.record(route.getId(), status, System.nanoTime() - start, requestBytes, response.bytesWritten);
+    }
+
+    private static int status(HttpStatusCode status) {
+        return status != null ? status.value() : 200;
+    }
+
+    private static int status(Throwable error) {
+        return error instanceof ResponseStatusException statusException ? statusException.getStatusCode().value() : 500;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    private static final class SizeCountingResponse extends ServerHttpResponseDecorator {
+
+        private volatile long bytesWritten;
+
+        private SizeCountingResponse(ServerHttpResponse delegate) {
+            super(delegate);
+        }
+
+        @Override
+        public Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+            long contentLength = getHeaders().getContentLength();
+            if (contentLength >= 0) {
+                bytesWritten = contentLength;
+                return super.writeWith(body);
+            }
+            return super.writeWith(Flux.<DataBuffer>from(body).doOnNext(buffer -> bytesWritten += buffer.readableByteCount()));
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return super.writeAndFlushWith(Flux.from(body).map(part ->
+                    Flux.<DataBuffer>from(part).doOnNext(buffer -> bytesWritten += buffer.readableByteCount())));
+        }
+    }
+}
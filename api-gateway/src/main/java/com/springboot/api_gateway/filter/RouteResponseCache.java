@@ -0,0 +1,105 @@
+package com.springboot.api_gateway.filter;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Responses cached for one route, bounded by total body bytes and time to live. Every write
+ * through the route bumps {@link #generation()}, and a response is only stored if no write
+ * happened while it was being fetched, so an in-flight read cannot repopulate stale data.
+ */
+class RouteResponseCache {
+
+    private static final int ENTRY_OVERHEAD_BYTES = 256;
+
+    private final Duration timeToLive;
+    private final long maxBytes;
+    private final Cache<String, CachedResponse> responses;
+    private final AtomicLong generation = new AtomicLong();
+    private final List<Meter> meters;
+
+    RouteResponseCache(String routeId, Duration timeToLive, long maxBytes, MeterRegistry meterRegistry) {
+        this.timeToLive = timeToLive;
+        this.maxBytes = maxBytes;
+        this.responses = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((String key, CachedResponse response) -> response.weight())
+                .expireAfterWrite(timeToLive)
+                .recordStats()
+                .build();
+        this.meters = List.of(
+                FunctionCounter.builder("gateway.response-cache.requests", responses, cache -> cache.stats().hitCount())
+                        .tag("route", routeId).tag("result", "hit")
+                        .register(meterRegistry),
+                FunctionCounter.builder("gateway.response-cache.requests", responses, cache -> cache.stats().missCount())
+                        .tag("route", routeId).tag("result", "miss")
+                        .register(meterRegistry),
+                Gauge.builder("gateway.response-cache.hit-ratio", responses, cache -> cache.stats().hitRate())
+                        .tag("route", routeId)
+                        .register(meterRegistry),
+                Gauge.builder("gateway.response-cache.bytes", responses,
+                                cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                        .tag("route", routeId)
+                        .baseUnit("bytes")
+                        .register(meterRegistry));
+    }
+
+    boolean hasSettings(Duration timeToLive, long maxBytes) {
+        return this.timeToLive.equals(timeToLive) && this.maxBytes == maxBytes;
+    }
+
+    CachedResponse get(String key) {
+        return responses.getIfPresent(key);
+    }
+
+    long generation() {
+        return generation.get();
+    }
+
+    void put(String key, CachedResponse response, long fetchedAtGeneration) {
+        if (generation.get() == fetchedAtGeneration) {
+            responses.put(key, response);
+        }
+    }
+
+    /**
+     * Drops every cached response whose path is on the same branch as the written path: its
+     * parents (collection listings) and everything beneath it.
+     */
+    void invalidate(String writtenPath) {
+        generation.incrementAndGet();
+        responses.asMap().values().removeIf(response ->
+                isSegmentPrefix(response.path(), writtenPath) || isSegmentPrefix(writtenPath, response.path()));
+    }
+
+    void invalidateAll() {
+        generation.incrementAndGet();
+        responses.invalidateAll();
+    }
+
+    void close(MeterRegistry meterRegistry) {
+        meters.forEach(meterRegistry::remove);
+        responses.invalidateAll();
+    }
+
+    private static boolean isSegmentPrefix(String prefix, String path) {
+        String trimmed = prefix.endsWith("/") ? prefix.substring(0, prefix.length() - 1) : prefix;
+        return path.startsWith(trimmed)
+                && (path.length() == trimmed.length() || path.charAt(trimmed.length()) == '/');
+    }
+
+    record CachedResponse(String path, CapturedResponse response) {
+
+        int weight() {
+            return response.body().length + ENTRY_OVERHEAD_BYTES;
+        }
+    }
+}
@@ -1,23 +1,61 @@
 package com.springboot.api_gateway.filter;
 
-import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
 
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
-import java.util.function.Predicate;
+import java.util.Map;
 
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+/**
+ * Decides whether a request needs a token. Each route lists the path prefixes that stay open in
+ * its {@code open-paths} metadata; everything else on a route is secured. The prefixes are
+ * compiled into one {@link PathPrefixTrie} per route whenever the gateway refreshes its routes.
+ */
 @Component
 public class RouteValidator {
 
-    public static final List<String> openApiEndpoints = List.of(
-            "/auth/register",
-            "/auth/token",
-            "/eureka"
-    );
+    public static final String OPEN_PATHS_METADATA = "open-paths";
+
+    private volatile Map<String, PathPrefixTrie> openPathsByRoute = Map.of();
+
+    @EventListener
+    public void onRoutesRefreshed(RefreshRoutesResultEvent event) {
+        if (event.isSuccess() && event.getSource() instanceof RouteLocator routeLocator) {
+            routeLocator.getRoutes()
+                    .collectMap(Route::getId, route -> PathPrefixTrie.of(openPaths(route)))
+                    .subscribe(compiled -> openPathsByRoute = compiled);
+        }
+    }
 
-    public Predicate<ServerHttpRequest> isSecured =
-            request -> openApiEndpoints
-                    .stream()
-                    .noneMatch(uri -> request.getURI().getPath().contains(uri));
+    public boolean isSecured(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(GATEWAY_ROUTE_ATTR);
+        if (route == null) {
+            return true;
+        }
+        PathPrefixTrie openPaths = openPathsByRoute.get(route.getId());
+        return openPaths == null
+                || !openPaths.matches(exchange.getRequest().getPath().pathWithinApplication().value());
+    }
 
+    private static Collection<String> openPaths(Route route) {
+        Object value = route.getMetadata().get(OPEN_PATHS_METADATA);
+        if (value instanceof String paths) {
+            return Arrays.stream(paths.split(",")).filter(path -> !path.isBlank()).toList();
+        }
+        if (value instanceof Collection<?> paths) {
+            return paths.stream().map(String::valueOf).toList();
+        }
+        if (value instanceof Map<?, ?> paths) {
+            return paths.values().stream().map(String::valueOf).toList();
+        }
+        return List.of();
+    }
 }
@@ -0,0 +1,102 @@
+package com.springboot.api_gateway.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Accounts for response bytes gateway filters hold in memory instead of streaming, such as
+ * copies kept for the response cache or for coalesced requests. {@code gateway.buffered.bytes}
+ * is what every exchange holds right now; {@code gateway.exchange.buffered.bytes} is the peak a
+ * single exchange held, per route, so one oversized export shows up before it shows up in heap.
+ */
+@Component
+public class BufferedBytes {
+
+    private static final String TRACKER_ATTR = BufferedBytes.class.getName() + ".tracker";
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong held = new AtomicLong();
+    private final Map<String, DistributionSummary> peaksByRoute = new ConcurrentHashMap<>();
+
+    public BufferedBytes(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("gateway.buffered.bytes", held, AtomicLong::get)
+                .description("Response bytes currently held in memory by gateway filters")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts accounting for one exchange; filters further down find the tracker with
+     * {@link #of(ServerWebExchange)}. {@link Tracker#close()} must be called when it ends.
+     */
+    public Tracker start(ServerWebExchange exchange, String routeId) {
+        DistributionSummary peaks = peaksByRoute.computeIfAbsent(routeId, id -> DistributionSummary
+                .builder("gateway.exchange.buffered.bytes")
+                .description("Peak response bytes held in memory by gateway filters for one exchange")
+                .baseUnit("bytes")
+                .tag("route", id)
+                .register(meterRegistry));
+        Tracker tracker = new Tracker(held, peaks);
+        exchange.getAttributes().put(TRACKER_ATTR, tracker);
+        return tracker;
+    }
+
+    /**
+     * The exchange's tracker, or one that counts nothing when the exchange is not being tracked.
+     */
+    public static Tracker of(ServerWebExchange exchange) {
+        Tracker tracker = exchange.getAttribute(TRACKER_ATTR);
+        return tracker != null ? tracker : Tracker.NONE;
+    }
+
+    public static final class Tracker {
+
+        static final Tracker NONE = new Tracker(null, null);
+
+        private final AtomicLong total;
+        private final DistributionSummary peaks;
+        private final AtomicLong held = new AtomicLong();
+        private final AtomicLong peak = new AtomicLong();
+
+        private Tracker(AtomicLong total, DistributionSummary peaks) {
+            this.total = total;
+            this.peaks = peaks;
+        }
+
+        public void hold(long bytes) {
+            if (total == null || bytes == 0) {
+                return;
+            }
+            total.addAndGet(bytes);
+            long now = held.addAndGet(bytes);
+            peak.accumulateAndGet(now, Math::max);
+        }
+
+        public void release(long bytes) {
+            if (total == null || bytes == 0) {
+                return;
+            }
+            total.addAndGet(-bytes);
+            held.addAndGet(-bytes);
+        }
+
+        /**
+         * Records the exchange's peak and gives back anything a filter failed to release.
+         */
+        public void close() {
+            if (total == null) {
+                return;
+            }
+            total.addAndGet(-held.getAndSet(0));
+            peaks.record(peak.get());
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.springboot.api_gateway.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-route, per-status latency and request/response size distributions over a rolling window.
+ * Configured percentiles of each distribution are published as gauges; the raw histograms are
+ * available as {@link #snapshots()} for the {@code routehistograms} actuator endpoint.
+ */
+@Component
+public class RouteHistograms {
+
+    private static final int STATUS_CODES = 600;
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(5);
+    private static final long MAX_SIZE_BYTES = 1L << 30;
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration window;
+    private final int intervals;
+    private final double[] percentiles;
+    private final LongSupplier nanoClock;
+    private final Map<String, AtomicReferenceArray<StatusHistograms>> routes = new ConcurrentHashMap<>();
+
+    @Autowired
+    public RouteHistograms(MeterRegistry meterRegistry,
+                           @Value("${gateway.metrics.histograms.window:60s}") Duration window,
+                           @Value("${gateway.metrics.histograms.intervals:3}") int intervals,
+                           @Value("${gateway.metrics.histograms.percentiles:0.5,0.9,0.99,0.999}") double[] percentiles) {
+        this(meterRegistry, window, intervals, percentiles, System::nanoTime);
+    }
+
+    RouteHistograms(MeterRegistry meterRegistry, Duration window, int intervals, double[] percentiles, LongSupplier nanoClock) {
+        this.meterRegistry = meterRegistry;
+        this.window = window;
+        this.intervals = intervals;
+        this.percentiles = percentiles.clone();
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Records one exchange. Sizes below zero mean unknown and are left out.
+     */
+    public void record(String routeId, int status, long latencyNanos, long requestBytes, long responseBytes) {
+        long now = nanoClock.getAsLong();
+        StatusHistograms histograms = histograms(routeId, status, now);
+        histograms.latency.record(TimeUnit.NANOSECONDS.toMicros(latencyNanos), now);
+        if (requestBytes >= 0) {
+            histograms.requestSize.record(requestBytes, now);
+        }
+        if (responseBytes >= 0) {
+            histograms.responseSize.record(responseBytes, now);
+        }
+    }
+
+    private StatusHistograms histograms(String routeId, int status, long now) {
+        int index = status > 0 && status < STATUS_CODES ? status : 0;
+        AtomicReferenceArray<StatusHistograms> byStatus =
+                routes.computeIfAbsent(routeId, id -> new AtomicReferenceArray<>(STATUS_CODES));
+        StatusHistograms histograms = byStatus.get(index);
+        if (histograms != null) {
+            return histograms;
+        }
+        StatusHistograms created = new StatusHistograms(now);
+        if (!byStatus.compareAndSet(index, null, created)) {
+            return byStatus.get(index);
+        }
+        register(routeId, index, created);
+        return created;
+    }
+
+    private void register(String routeId, int status, StatusHistograms histograms) {
+        String statusTag = status == 0 ? "UNKNOWN" : String.valueOf(status);
+        for (double percentile : percentiles) {
+            String phi = String.valueOf(percentile);
+            Gauge.builder("gateway.route.latency.percentile", histograms,
+                            h -> h.latency.window(nanoClock.getAsLong()).getValueAtPercentile(percentile * 100) / 1e6)
+                    .description("Latency percentile over the rolling window, measured at the gateway")
+                    .baseUnit("seconds")
+                    .tags("route", routeId, "status", statusTag, "phi", phi)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.route.request.size.percentile", histograms,
+                            h -> h.requestSize.window(nanoClock.getAsLong()).getValueAtPercentile(percentile * 100))
+                    .description("Request body size percentile over the rolling window")
+                    .baseUnit("bytes")
+                    .tags("route", routeId, "status", statusTag, "phi", phi)
+                    .register(meterRegistry);
+            Gauge.builder("gateway.route.response.size.percentile", histograms,
+                            h -> h.responseSize.window(nanoClock.getAsLong()).getValueAtPercentile(percentile * 100))
+                    .description("Response body size percentile over the rolling window")
+                    .baseUnit("bytes")
+                    .tags("route", routeId, "status", statusTag, "phi", phi)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Rolling-window histograms of every route and status seen so far, keyed by route id and
+     * status code.
+     */
+    public Map<String, Map<String, RouteSnapshot>> snapshots() {
+        long now = nanoClock.getAsLong();
+        Map<String, Map<String, RouteSnapshot>> snapshots = new TreeMap<>();
+        routes.forEach((routeId, byStatus) -> {
+            Map<String, RouteSnapshot> statuses = new TreeMap<>();
+            for (int status = 0; status < STATUS_CODES; status++) {
+                StatusHistograms histograms = byStatus.get(status);
+                if (histograms != null) {
+                    statuses.put(status == 0 ? "UNKNOWN" : String.valueOf(status), new RouteSnapshot(
+                            snapshot(histograms.latency.window(now), "microseconds"),
+                            snapshot(histograms.requestSize.window(now), "bytes"),
+                            snapshot(histograms.responseSize.window(now), "bytes")));
+                }
+            }
+            snapshots.put(routeId, statuses);
+        });
+        return snapshots;
+    }
+
+    private HistogramSnapshot snapshot(Histogram histogram, String unit) {
+        Map<String, Long> values = new LinkedHashMap<>();
+        for (double percentile : percentiles) {
+            values.put(String.valueOf(percentile), histogram.getValueAtPercentile(percentile * 100));
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        return new HistogramSnapshot(unit, histogram.getStartTimeStamp(), histogram.getEndTimeStamp(),
+                histogram.getTotalCount(), histogram.getMinValue(), histogram.getMaxValue(), histogram.getMean(),
+                values, Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+    }
+
+    private final class StatusHistograms {
+
+        private final WindowedHistogram latency;
+        private final WindowedHistogram requestSize;
+        private final WindowedHistogram responseSize;
+
+        private StatusHistograms(long now) {
+            this.latency = new WindowedHistogram(MAX_LATENCY_MICROS, SIGNIFICANT_DIGITS, window, intervals, now);
+            this.requestSize = new WindowedHistogram(MAX_SIZE_BYTES, SIGNIFICANT_DIGITS, window, intervals, now);
+            this.responseSize = new WindowedHistogram(MAX_SIZE_BYTES, SIGNIFICANT_DIGITS, window, intervals, now);
+        }
+    }
+
+    public record RouteSnapshot(HistogramSnapshot latency, HistogramSnapshot requestSize, HistogramSnapshot responseSize) {
+    }
+
+    /**
+     * One histogram of the window. {@code encoded} is the histogram in HdrHistogram's compressed,
+     * base64-encoded form, which {@code Histogram.decodeFromCompressedByteBuffer} reads back.
+     */
+    public record HistogramSnapshot(String unit, long startTimeStamp, long endTimeStamp, long count,
+                                    long min, long max, double mean, Map<String, Long> percentiles, String encoded) {
+    }
+}
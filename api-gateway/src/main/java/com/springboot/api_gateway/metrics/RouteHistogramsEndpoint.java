@@ -0,0 +1,32 @@
+package com.springboot.api_gateway.metrics;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * {@code /actuator/routehistograms}: raw rolling-window histograms per route and status.
+ */
+@Component
+@Endpoint(id = "routehistograms")
+public class RouteHistogramsEndpoint {
+
+    private final RouteHistograms routeHistograms;
+
+    public RouteHistogramsEndpoint(RouteHistograms routeHistograms) {
+        this.routeHistograms = routeHistograms;
+    }
+
+    @ReadOperation
+    public Map<String, Map<String, RouteHistograms.RouteSnapshot>> histograms() {
+        return routeHistograms.snapshots();
+    }
+
+    @ReadOperation
+    public Map<String, RouteHistograms.RouteSnapshot> route(@Selector String routeId) {
+        return routeHistograms.snapshots().get(routeId);
+    }
+}
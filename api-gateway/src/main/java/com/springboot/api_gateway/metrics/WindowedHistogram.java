@@ -0,0 +1,85 @@
+package com.springboot.api_gateway.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rolling HdrHistogram over the last {@code window}, split into {@code intervals} equal parts.
+ * Writers record into a lock-free {@link Recorder}; whenever an interval ends, the first writer
+ * or reader to notice rotates it into the ring and publishes a merged histogram of the completed
+ * intervals. Readers only ever see that merged histogram, which is never modified once published.
+ */
+final class WindowedHistogram {
+
+    private final long highestTrackableValue;
+    private final int significantDigits;
+    private final long intervalNanos;
+    private final Recorder recorder;
+    private final Histogram[] intervals;
+
+    private volatile long nextRotationNanos;
+    private volatile Histogram window;
+    private int position;
+
+    WindowedHistogram(long highestTrackableValue, int significantDigits, Duration window, int intervals, long nowNanos) {
+        if (intervals < 1 || window.toNanos() < intervals) {
+            throw new IllegalArgumentException("A histogram window needs at least one interval");
+        }
+        this.highestTrackableValue = highestTrackableValue;
+        this.significantDigits = significantDigits;
+        this.intervalNanos = window.toNanos() / intervals;
+        this.recorder = new Recorder(highestTrackableValue, significantDigits);
+        this.intervals = new Histogram[intervals];
+        for (int i = 0; i < intervals; i++) {
+            this.intervals[i] = new Histogram(highestTrackableValue, significantDigits);
+        }
+        this.window = new Histogram(highestTrackableValue, significantDigits);
+        this.nextRotationNanos = nowNanos + intervalNanos;
+    }
+
+    void record(long value, long nowNanos) {
+        if (nowNanos >= nextRotationNanos) {
+            rotate(nowNanos);
+        }
+        recorder.recordValue(Math.max(0, Math.min(value, highestTrackableValue)));
+    }
+
+    /**
+     * The completed intervals of the current window; values recorded in the interval that is
+     * still open are not included yet.
+     */
+    Histogram window(long nowNanos) {
+        if (nowNanos >= nextRotationNanos) {
+            rotate(nowNanos);
+        }
+        return window;
+    }
+
+    private synchronized void rotate(long nowNanos) {
+        long next = nextRotationNanos;
+        if (nowNanos < next) {
+            return;
+        }
+        long elapsedIntervals = (nowNanos - next) / intervalNanos + 1;
+        recorder.getIntervalHistogramInto(intervals[position]);
+        position = (position + 1) % intervals.length;
+        // Intervals that passed without anyone recording or reading are empty.
+        for (long i = 1; i < Math.min(elapsedIntervals, intervals.length + 1); i++) {
+            intervals[position].reset();
+            position = (position + 1) % intervals.length;
+        }
+
+        Histogram merged = new Histogram(highestTrackableValue, significantDigits);
+        for (Histogram interval : intervals) {
+            merged.add(interval);
+        }
+        long endMillis = System.currentTimeMillis();
+        merged.setEndTimeStamp(endMillis);
+        merged.setStartTimeStamp(endMillis - TimeUnit.NANOSECONDS.toMillis(intervalNanos * intervals.length));
+        window = merged;
+        nextRotationNanos = next + elapsedIntervals * intervalNanos;
+    }
+}
@@ -0,0 +1,82 @@
+package com.springboot.api_gateway.revocation;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Keeps {@link RevokedTokens} in step with security-service's {@code /auth/revocations}
+ * snapshot. Each poll sends the version already held and gets an empty 304 back while nothing
+ * has changed. A failed poll keeps the last snapshot.
+ */
+@Slf4j
+@Component
+public class RevocationPoller {
+
+    private static final String REVOCATIONS_PATH = "/auth/revocations";
+
+    private final WebClient webClient;
+    private final RevokedTokens revokedTokens;
+    private final Duration pollInterval;
+    private Disposable polling;
+
+    public RevocationPoller(WebClient.Builder webClientBuilder, ReactorLoadBalancerExchangeFilterFunction loadBalancer,
+                            RevokedTokens revokedTokens,
+                            @Value("${gateway.revocations.uri:http://security-service}") String uri,
+                            @Value("${gateway.revocations.poll-interval:5s}") Duration pollInterval) {
+        this.webClient = webClientBuilder.baseUrl(uri).filter(loadBalancer).build();
+        this.revokedTokens = revokedTokens;
+        this.pollInterval = pollInterval;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        polling = Flux.interval(Duration.ZERO, pollInterval)
+                .onBackpressureDrop()
+                .concatMap(tick -> poll(), 1)
+                .subscribe();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (polling != null) {
+            polling.dispose();
+        }
+    }
+
+    Mono<Void> poll() {
+        return webClient.get()
+                .uri(builder -> builder.path(REVOCATIONS_PATH).queryParam("since", revokedTokens.version()).build())
+                .exchangeToMono(response -> {
+                    if (response.statusCode() == HttpStatus.NOT_MODIFIED) {
+                        return response.releaseBody();
+                    }
+                    if (!response.statusCode().is2xxSuccessful()) {
+                        return response.createError();
+                    }
+                    return response.bodyToMono(Snapshot.class)
+                            .doOnNext(snapshot -> revokedTokens.update(snapshot.version(), snapshot.revoked()))
+                            .then();
+                })
+                .timeout(pollInterval)
+                .onErrorResume(e -> {
+                    log.warn("Could not refresh revoked tokens: {}", e.toString());
+                    return Mono.empty();
+                });
+    }
+
+    record Snapshot(long version, List<String> revoked) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.springboot.api_gateway.revocation;
+
+import com.springboot.api_gateway.util.BloomFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * The gateway's copy of the revoked token ids published by security-service. Lookups never leave
+ * the process: a Bloom filter answers almost every negative with a few bit probes, and only its
+ * positives are confirmed against the exact set.
+ */
+@Component
+public class RevokedTokens {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private volatile Snapshot snapshot = new Snapshot(-1, BloomFilter.of(Set.of(), FALSE_POSITIVE_RATE), Set.of());
+
+    public RevokedTokens(MeterRegistry meterRegistry) {
+        Gauge.builder("gateway.revoked-tokens", this, revokedTokens -> revokedTokens.snapshot.exact().size())
+                .description("Revoked token ids currently known to the gateway")
+                .register(meterRegistry);
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        Snapshot current = snapshot;
+        return !current.exact().isEmpty() && current.bloom().mightContain(jti) && current.exact().contains(jti);
+    }
+
+    /**
+     * Version of the snapshot held, or -1 before the first one arrived.
+     */
+    public long version() {
+        return snapshot.version();
+    }
+
+    public void update(long version, Collection<String> revoked) {
+        Set<String> exact = Set.copyOf(revoked);
+        snapshot = new Snapshot(version, BloomFilter.of(exact, FALSE_POSITIVE_RATE), exact);
+    }
+
+    private record Snapshot(long version, BloomFilter bloom, Set<String> exact) {
+    }
+}
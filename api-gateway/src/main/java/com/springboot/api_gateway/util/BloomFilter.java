@@ -0,0 +1,77 @@
+package com.springboot.api_gateway.util;
+
+import java.util.Collection;
+
+/**
+ * Immutable Bloom filter over strings. {@link #mightContain(String)} costs the same handful of
+ * probes however many values the filter holds; a {@code false} answer is always right, a
+ * {@code true} answer is wrong with roughly the false-positive rate it was sized for.
+ */
+public final class BloomFilter {
+
+    private static final int MAX_HASHES = 16;
+
+    private final long[] words;
+    private final int mask;
+    private final int hashes;
+
+    private BloomFilter(int bits, int hashes) {
+        this.words = new long[bits >>> 6];
+        this.mask = bits - 1;
+        this.hashes = hashes;
+    }
+
+    public static BloomFilter of(Collection<String> values, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1");
+        }
+        int expected = Math.max(1, values.size());
+        double optimalBits = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        int bits = Integer.highestOneBit((int) Math.min(1 << 30, Math.max(64, Math.ceil(optimalBits))) - 1) << 1;
+        int hashes = (int) Math.max(1, Math.min(MAX_HASHES, Math.round((double) bits / expected * Math.log(2))));
+        BloomFilter filter = new BloomFilter(bits, hashes);
+        values.forEach(filter::add);
+        return filter;
+    }
+
+    private void add(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & mask;
+            words[bit >>> 6] |= 1L << bit;
+        }
+    }
+
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        for (int i = 0; i < hashes; i++) {
+            int bit = (h1 + i * h2) & mask;
+            if ((words[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-16 chars, finished with the MurmurHash3 mixer so both halves
+     * are usable as independent hashes.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,60 @@
+package com.springboot.api_gateway.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory token buckets keyed by an arbitrary string. Each bucket is a single
+ * theoretical-arrival-time counter (GCRA) updated with compare-and-set, so taking a token never
+ * locks or allocates once the key is present. A bucket that has not been touched for as long as
+ * it takes to refill completely holds no state worth keeping and is evicted.
+ */
+public class TokenBucketTable {
+
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketTable(double tokensPerSecond, int burstCapacity, long maxKeys) {
+        if (tokensPerSecond <= 0 || burstCapacity < 1) {
+            throw new IllegalArgumentException("Token bucket needs a positive rate and a burst capacity of at least 1");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / tokensPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * burstCapacity;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofNanos(Math.max(burstToleranceNanos, TimeUnit.SECONDS.toNanos(1))))
+                .build();
+    }
+
+    /**
+     * Takes one token for the key.
+     *
+     * @return {@code 0} if a token was available, otherwise the nanoseconds until one will be
+     */
+    public long tryAcquire(String key) {
+        AtomicLong theoreticalArrival = buckets.get(key, k -> new AtomicLong(EMPTY));
+        long now = System.nanoTime();
+        while (true) {
+            long current = theoreticalArrival.get();
+            long next = Math.max(current, now) + emissionIntervalNanos;
+            long wait = next - now - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
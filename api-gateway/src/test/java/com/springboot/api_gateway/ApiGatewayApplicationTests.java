@@ -1,13 +1,44 @@
 package com.springboot.api_gateway;
 
+import com.springboot.api_gateway.loadbalancer.LatencyAwareLoadBalancer;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
 
-@SpringBootTest
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+
+@SpringBootTest(properties = {
+		"JWT_SECRET=Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M=",
+		"IDENTITY_SECRET=3b9Yl0qEXx6m2Pq1cS4nVdJ8wHkR7tZuA5oGfLyTiBs="
+})
 class ApiGatewayApplicationTests {
 
+	@Autowired
+	private RouteLocator routeLocator;
+
+	@Autowired
+	private LoadBalancerClientFactory loadBalancerClientFactory;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void routesLoad() {
+		List<Route> routes = routeLocator.getRoutes().collectList().block();
+
+		assertEquals(5, routes.size());
+	}
+
+	@Test
+	void latencyAwareLoadBalancer_isCreatedPerService() {
+		assertInstanceOf(LatencyAwareLoadBalancer.class, loadBalancerClientFactory.getInstance("bank-service"));
+	}
+
 }
@@ -0,0 +1,324 @@
+package com.springboot.api_gateway;
+
+import com.springboot.api_gateway.util.JwtUtil;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.reactive.server.EntityExchangeResult;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Sends requests through the gateway's real routes, filter chain and load balancer to a stub
+ * bank-service registered with the simple discovery client.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "JWT_SECRET=Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M=",
+        "IDENTITY_SECRET=3b9Yl0qEXx6m2Pq1cS4nVdJ8wHkR7tZuA5oGfLyTiBs=",
+        "eureka.client.enabled=false"
+})
+class GatewayRoutesTest {
+
+    private static final Backend BANK_SERVICE = new Backend();
+
+    @DynamicPropertySource
+    static void bankServiceInstance(DynamicPropertyRegistry registry) {
+        registry.add("spring.cloud.discovery.client.simple.instances.bank-service[0].uri", BANK_SERVICE::uri);
+    }
+
+    @AfterAll
+    static void stopBackend() {
+        BANK_SERVICE.server.stop(0);
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private WebTestClient client;
+
+    @BeforeEach
+    void setUp() {
+        // Spring's default connector asks for gzip and inflates it, which would hide what the gateway sent.
+        client = WebTestClient.bindToServer(new ReactorClientHttpConnector(HttpClient.create()))
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    private String token(String subject) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setId(subject + "-token")
+                .setExpiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(jwtUtil.getSignKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private EntityExchangeResult<byte[]> get(String path, String subject) {
+        return get(path, subject, null);
+    }
+
+    private EntityExchangeResult<byte[]> get(String path, String subject, String acceptEncoding) {
+        return client.get().uri(path)
+                .headers(headers -> {
+                    headers.set(HttpHeaders.AUTHORIZATION, "Bearer " + token(subject));
+                    if (acceptEncoding != null) {
+                        headers.set(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+                    }
+                })
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().returnResult();
+    }
+
+    @Test
+    void slowAttempt_isHedgedAndHedgeIsWrittenToClient() {
+        // The hedge delay is the route's recent p95, which needs 100 samples. Each warm-up request
+        // has its own subject and path so the rate limit, cache and coalescing stay out of the way.
+        for (int i = 0; i < 100; i++) {
+            get("/bank/warm-up-" + i, "warm-up-" + i);
+        }
+        BANK_SERVICE.delayFirst("/bank/hedged", Duration.ofSeconds(3));
+
+        long start = System.nanoTime();
+        EntityExchangeResult<byte[]> result = get("/bank/hedged", "hedged");
+
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals("/bank/hedged", new String(result.getResponseBody(), StandardCharsets.UTF_8));
+        assertEquals(2, BANK_SERVICE.hits("/bank/hedged"));
+        assertEquals(1.0, meterRegistry.get("gateway.hedging.won").tag("route", "bank-service").counter().count());
+    }
+
+    private double coalescing(String result) {
+        return meterRegistry.get("gateway.coalescing.requests")
+                .tag("route", "bank-service").tag("result", result)
+                .counter().count();
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareTheLeadersResponse() {
+        BANK_SERVICE.delayFirst("/bank/coalesced", Duration.ofMillis(500));
+        String authorization = "Bearer " + token("coalesced");
+        WebClient webClient = WebClient.create("http://localhost:" + port);
+        double coalesced = coalescing("coalesced");
+        double fallbacks = coalescing("fallback");
+
+        List<String> bodies = Flux.range(0, 5)
+                .flatMap(i -> webClient.get().uri("/bank/coalesced")
+                        .header(HttpHeaders.AUTHORIZATION, authorization)
+                        .retrieve()
+                        .bodyToMono(String.class))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        assertEquals(Collections.nCopies(5, "/bank/coalesced"), bodies);
+        assertEquals(4.0, coalescing("coalesced") - coalesced);
+        assertEquals(0.0, coalescing("fallback") - fallbacks);
+    }
+
+    /**
+     * A JSON body of a few kilobytes, over the routes' 2KB compression threshold.
+     */
+    private static String accountsJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 40; i++) {
+            json.append(i == 0 ? "" : ",")
+                    .append("{\"id\":").append(i)
+                    .append(",\"holder\":\"Account holder ").append(i)
+                    .append("\",\"balance\":").append(1000 + i).append(".00}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static String gunzip(byte[] body) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void largeJsonResponse_isGzippedForClientsThatAcceptIt() throws IOException {
+        String json = accountsJson();
+        BANK_SERVICE.serveJson("/bank/compressed", json);
+
+        EntityExchangeResult<byte[]> gzipped = get("/bank/compressed", "compressed", "gzip");
+        EntityExchangeResult<byte[]> plain = get("/bank/compressed", "plain");
+
+        assertEquals("gzip", gzipped.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json, gunzip(gzipped.getResponseBody()));
+        assertNull(plain.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json, new String(plain.getResponseBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void repeatedGet_isReplayedFromCacheForGzipAndPlainClients() throws IOException {
+        String json = accountsJson();
+        BANK_SERVICE.serveJson("/bank/cached", json);
+
+        EntityExchangeResult<byte[]> first = get("/bank/cached", "cached", "gzip");
+        EntityExchangeResult<byte[]> plain = get("/bank/cached", "cached");
+        EntityExchangeResult<byte[]> gzipped = get("/bank/cached", "cached", "gzip");
+
+        assertEquals(1, BANK_SERVICE.hits("/bank/cached"));
+        assertEquals(json, gunzip(first.getResponseBody()));
+        assertNull(plain.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json, new String(plain.getResponseBody(), StandardCharsets.UTF_8));
+        assertEquals("gzip", gzipped.getResponseHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(json, gunzip(gzipped.getResponseBody()));
+    }
+
+    private double bufferedBytes() {
+        return meterRegistry.get("gateway.buffered.bytes").gauge().value();
+    }
+
+    @Test
+    void bodyCapturedForTheCache_isCountedWhileItStreams() throws InterruptedException {
+        String json = accountsJson();
+        BANK_SERVICE.serveJson("/bank/buffered", json);
+        BANK_SERVICE.pauseMidBody("/bank/buffered", Duration.ofMillis(500));
+        DistributionSummary peaks = meterRegistry.get("gateway.exchange.buffered.bytes")
+                .tag("route", "bank-service").summary();
+        double peakTotal = peaks.totalAmount();
+
+        CompletableFuture<EntityExchangeResult<byte[]>> result =
+                CompletableFuture.supplyAsync(() -> get("/bank/buffered", "buffered"));
+        double held = 0;
+        while (held == 0 && !result.isDone()) {
+            held = bufferedBytes();
+            Thread.sleep(10);
+        }
+        result.join();
+
+        // Half the body is held for the cache and coalesced followers while the rest is pending.
+        assertTrue(held >= json.length() / 2.0, "held " + held);
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (bufferedBytes() != 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0.0, bufferedBytes());
+        assertTrue(peaks.totalAmount() - peakTotal >= json.length());
+    }
+
+    /**
+     * Answers each path with its own name, or the JSON body set for it, after the delays queued
+     * for it. A path with a mid-body pause sends half its body, then the rest after the pause.
+     */
+    private static final class Backend {
+
+        private final HttpServer server;
+        private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+        private final Map<String, Queue<Duration>> delays = new ConcurrentHashMap<>();
+        private final Map<String, String> jsonBodies = new ConcurrentHashMap<>();
+        private final Map<String, Duration> midBodyPauses = new ConcurrentHashMap<>();
+
+        private Backend() {
+            try {
+                server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            server.setExecutor(Executors.newCachedThreadPool());
+            server.createContext("/", this::handle);
+            server.start();
+        }
+
+        private String uri() {
+            return "http://localhost:" + server.getAddress().getPort();
+        }
+
+        private void delayFirst(String path, Duration delay) {
+            delays.computeIfAbsent(path, p -> new ConcurrentLinkedQueue<>()).add(delay);
+        }
+
+        private void serveJson(String path, String json) {
+            jsonBodies.put(path, json);
+        }
+
+        private void pauseMidBody(String path, Duration pause) {
+            midBodyPauses.put(path, pause);
+        }
+
+        private int hits(String path) {
+            AtomicInteger count = hits.get(path);
+            return count == null ? 0 : count.get();
+        }
+
+        private static void sleep(Duration duration) {
+            try {
+                Thread.sleep(duration.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void handle(HttpExchange exchange) throws IOException {
+            String path = exchange.getRequestURI().getPath();
+            hits.computeIfAbsent(path, p -> new AtomicInteger()).incrementAndGet();
+            Queue<Duration> pending = delays.get(path);
+            Duration delay = pending != null ? pending.poll() : null;
+            if (delay != null) {
+                sleep(delay);
+            }
+            String json = jsonBodies.get(path);
+            byte[] body = (json != null ? json : path).getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set(HttpHeaders.CONTENT_TYPE, json != null ? "application/json" : "text/plain");
+            Duration pause = midBodyPauses.get(path);
+            if (pause == null) {
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(body);
+                }
+                return;
+            }
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body, 0, body.length / 2);
+                out.flush();
+                sleep(pause);
+                out.write(body, body.length / 2, body.length - body.length / 2);
+            }
+        }
+    }
+}
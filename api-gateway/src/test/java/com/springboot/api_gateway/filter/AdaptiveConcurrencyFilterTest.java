@@ -0,0 +1,96 @@
+package com.springboot.api_gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyFilter factory;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new AdaptiveConcurrencyFilter(meterRegistry);
+    }
+
+    private AdaptiveConcurrencyFilter.Config config(int initialLimit) {
+        AdaptiveConcurrencyFilter.Config config = new AdaptiveConcurrencyFilter.Config();
+        config.setRouteId("bank-service");
+        config.setInitialLimit(initialLimit);
+        config.setMinLimit(1);
+        return config;
+    }
+
+    private static MockServerWebExchange exchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/bank/1"));
+    }
+
+    private double gauge(String name) {
+        return meterRegistry.get(name).tag("route", "bank-service").gauge().value();
+    }
+
+    @Test
+    void requestsBeyondLimit_areShedWith503() {
+        GatewayFilter filter = factory.apply(config(1));
+        Sinks.Empty<Void> backend = Sinks.empty();
+        GatewayFilterChain slowChain = exchange -> backend.asMono();
+
+        Disposable first = filter.filter(exchange(), slowChain).subscribe();
+        MockServerWebExchange shed = exchange();
+        filter.filter(shed, slowChain).block();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, shed.getResponse().getStatusCode());
+        assertEquals(1.0, meterRegistry.get("gateway.concurrency.shed").tag("route", "bank-service").counter().count());
+        assertEquals(1.0, gauge("gateway.concurrency.in-flight"));
+
+        backend.tryEmitEmpty();
+        assertTrue(first.isDisposed());
+        assertEquals(0.0, gauge("gateway.concurrency.in-flight"));
+    }
+
+    @Test
+    void cancelledRequests_releaseTheirSlot() {
+        GatewayFilter filter = factory.apply(config(1));
+
+        Disposable pending = filter.filter(exchange(), exchange -> Mono.never()).subscribe();
+        pending.dispose();
+
+        assertEquals(0.0, gauge("gateway.concurrency.in-flight"));
+    }
+
+    @Test
+    void backendReturning503_lowersLimit() {
+        GatewayFilter filter = factory.apply(config(20));
+        // Completing on the calling thread makes the limit update happen before block() returns.
+        GatewayFilterChain overloaded = exchange -> {
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            return Mono.empty();
+        };
+
+        filter.filter(exchange(), overloaded).block();
+
+        assertEquals(18.0, gauge("gateway.concurrency.limit"));
+    }
+
+    @Test
+    void routeRefresh_keepsLearnedLimitForUnchangedSettings() {
+        GatewayFilter filter = factory.apply(config(20));
+        filter.filter(exchange(), exchange -> Mono.error(new IllegalStateException("timeout"))).onErrorComplete().block();
+
+        factory.apply(config(20));
+
+        assertEquals(18.0, gauge("gateway.concurrency.limit"));
+    }
+}
@@ -0,0 +1,196 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.revocation.RevokedTokens;
+import com.springboot.api_gateway.util.IdentityHeaderSigner;
+import com.springboot.api_gateway.util.JwtUtil;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class AuthenticationFilterTest {
+
+    private static final String SECRET = "Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M=";
+
+    private static final Route SECURITY_ROUTE = Route.async()
+            .id("security-service")
+            .uri("lb://security-service")
+            .predicate(exchange -> true)
+            .metadata(RouteValidator.OPEN_PATHS_METADATA, "/auth/register,/auth/token")
+            .build();
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+    private RevokedTokens revokedTokens;
+    private GatewayFilter filter;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(100, meterRegistry);
+        jwtUtil.setSECRET(SECRET);
+        RouteValidator routeValidator = new RouteValidator();
+        routeValidator.onRoutesRefreshed(new RefreshRoutesResultEvent((RouteLocator) () -> Flux.just(SECURITY_ROUTE)));
+        revokedTokens = new RevokedTokens(meterRegistry);
+        filter = new AuthenticationFilter(routeValidator, jwtUtil, new IdentityHeaderSigner(SECRET), revokedTokens,
+                meterRegistry).apply(new AuthenticationFilter.Config());
+        chain = mock(GatewayFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+    }
+
+    private String token(long expiresInMillis) {
+        return Jwts.builder()
+                .setSubject("user")
+                .setId("token-1")
+                .claim(IdentityHeaderSigner.ROLES_CLAIM, List.of("customer", "auditor"))
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(jwtUtil.getSignKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private double rejections(String reason) {
+        return meterRegistry.get("gateway.auth.rejections").tag("reason", reason).counter().count();
+    }
+
+    private ServerWebExchange forwarded() {
+        ArgumentCaptor<ServerWebExchange> forwarded = ArgumentCaptor.forClass(ServerWebExchange.class);
+        verify(chain).filter(forwarded.capture());
+        return forwarded.getValue();
+    }
+
+    @Test
+    void validToken_isForwardedWithSignedIdentity() throws Exception {
+        String token = token(60_000);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header(IdentityHeaderSigner.HEADER, "forged"));
+
+        filter.filter(exchange, chain).block();
+
+        assertNull(exchange.getResponse().getStatusCode());
+        List<String> identity = forwarded().getRequest().getHeaders().get(IdentityHeaderSigner.HEADER);
+        assertEquals(1, identity.size());
+        String[] parts = identity.get(0).split("\\.");
+        String payload = new String(Base64.getUrlDecoder().decode(parts[0]), StandardCharsets.UTF_8);
+        long expiry = jwtUtil.validateToken(token).getExpiration().getTime() / 1000;
+        assertEquals("user\ncustomer,auditor\n" + expiry, payload);
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(SECRET), "HmacSHA256"));
+        byte[] expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        assertArrayEquals(expected, Base64.getUrlDecoder().decode(parts[1]));
+    }
+
+    @Test
+    void missingHeader_returnsBadRequestBody() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.BAD_REQUEST, exchange.getResponse().getStatusCode());
+        String body = exchange.getResponse().getBodyAsString().block();
+        assertTrue(body.startsWith("{\"statusCode\":400,\"message\":\"Missing authorization header\",\"timeStamp\":"));
+        assertEquals(1.0, rejections("missing_header"));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void malformedToken_returnsUnauthorized() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer not-a-jwt"));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, rejections("malformed_token"));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void expiredToken_returnsUnauthorized() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(-1_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, rejections("expired_token"));
+    }
+
+    @Test
+    void tokenWithoutExpiry_returnsUnauthorized() {
+        String token = Jwts.builder()
+                .setSubject("user")
+                .setId("token-1")
+                .signWith(jwtUtil.getSignKey(), SignatureAlgorithm.HS256)
+                .compact();
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, rejections("invalid_token"));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void revokedToken_returnsUnauthorized() {
+        revokedTokens.update(1L, List.of("token-1"));
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token(60_000)));
+
+        filter.filter(exchange, chain).block();
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange.getResponse().getStatusCode());
+        assertEquals(1.0, rejections("revoked_token"));
+        verify(chain, never()).filter(any());
+    }
+
+    @Test
+    void openEndpoint_skipsAuthentication() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/token"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, SECURITY_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        verify(chain).filter(exchange);
+    }
+
+    @Test
+    void openEndpoint_dropsForgedIdentity() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/auth/token")
+                .header(IdentityHeaderSigner.HEADER, "forged"));
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, SECURITY_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        assertFalse(forwarded().getRequest().getHeaders().containsKey(IdentityHeaderSigner.HEADER));
+    }
+}
@@ -0,0 +1,159 @@
+package com.springboot.api_gateway.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.api_gateway.util.IdentityHeaderSigner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactorLoadBalancerExchangeFilterFunction;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.putUriTemplateVariables;
+
+class BankViewFilterTest {
+
+    private static final String BANK = "{\"id\":1,\"name\":\"Central\"}";
+    private static final String ACCOUNTS = "[{\"id\":10,\"bankId\":1},{\"id\":11,\"bankId\":1}]";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Mono<ClientResponse>> responses = new ConcurrentHashMap<>();
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private GatewayFilter filter;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        ExchangeFunction downstream = request -> {
+            requests.add(request);
+            return responses.getOrDefault(request.url().getHost(), Mono.error(new IllegalStateException("no route")));
+        };
+        ReactorLoadBalancerExchangeFilterFunction loadBalancer = mock(ReactorLoadBalancerExchangeFilterFunction.class,
+                withSettings().defaultAnswer(CALLS_REAL_METHODS));
+        doAnswer(invocation -> invocation.<ExchangeFunction>getArgument(1).exchange(invocation.getArgument(0)))
+                .when(loadBalancer).filter(any(), any());
+        BankViewFilter.Config config = new BankViewFilter.Config();
+        config.setRouteId("bank-view");
+        config.setLegTimeout(Duration.ofMillis(200));
+        filter = new BankViewFilter(WebClient.builder().exchangeFunction(downstream), loadBalancer, objectMapper,
+                new SimpleMeterRegistry()).apply(config);
+        chain = mock(GatewayFilterChain.class);
+    }
+
+    private static Mono<ClientResponse> json(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+
+    private MockServerWebExchange view(String id) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/views/bank/" + id)
+                .header(IdentityHeaderSigner.HEADER, "signed-identity"));
+        putUriTemplateVariables(exchange, Map.of("id", id));
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    private JsonNode body(MockServerWebExchange exchange) throws Exception {
+        return objectMapper.readTree(exchange.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    void bothLegsSucceed_mergesBankAndAccounts() throws Exception {
+        responses.put("bank-service", json(HttpStatus.OK, BANK));
+        responses.put("account-service", json(HttpStatus.OK, ACCOUNTS));
+
+        MockServerWebExchange exchange = view("1");
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        JsonNode view = body(exchange);
+        assertEquals("Central", view.get("bank").get("name").asText());
+        assertEquals(2, view.get("accounts").size());
+        assertTrue(view.get("errors").isEmpty());
+        assertEquals(2, requests.size());
+        assertTrue(requests.stream().allMatch(request ->
+                "signed-identity".equals(request.headers().getFirst(IdentityHeaderSigner.HEADER))));
+        assertTrue(requests.stream().anyMatch(request -> request.url().getPath().equals("/accounts/bank/1")));
+        verifyNoInteractions(chain);
+    }
+
+    @Test
+    void legsRunInParallel() {
+        responses.put("bank-service", json(HttpStatus.OK, BANK).delayElement(Duration.ofMillis(150)));
+        responses.put("account-service", json(HttpStatus.OK, ACCOUNTS).delayElement(Duration.ofMillis(150)));
+
+        long start = System.nanoTime();
+        MockServerWebExchange exchange = view("1");
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 290);
+    }
+
+    @Test
+    void slowAccounts_returnPartialView() throws Exception {
+        responses.put("bank-service", json(HttpStatus.OK, BANK));
+        responses.put("account-service", json(HttpStatus.OK, ACCOUNTS).delayElement(Duration.ofSeconds(5)));
+
+        MockServerWebExchange exchange = view("1");
+
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+        JsonNode view = body(exchange);
+        assertEquals("Central", view.get("bank").get("name").asText());
+        assertTrue(view.get("accounts").isNull());
+        assertEquals("accounts", view.get("errors").get(0).get("leg").asText());
+        assertEquals(504, view.get("errors").get(0).get("statusCode").asInt());
+    }
+
+    @Test
+    void bankWithoutAccounts_hasEmptyAccounts() throws Exception {
+        responses.put("bank-service", json(HttpStatus.OK, BANK));
+        responses.put("account-service", json(HttpStatus.NOT_FOUND, "{}"));
+
+        JsonNode view = body(view("1"));
+
+        assertEquals(0, view.get("accounts").size());
+        assertTrue(view.get("errors").isEmpty());
+    }
+
+    @Test
+    void unknownBank_returnsNotFound() {
+        responses.put("bank-service", json(HttpStatus.NOT_FOUND, "{}"));
+        responses.put("account-service", json(HttpStatus.NOT_FOUND, "{}"));
+
+        assertEquals(HttpStatus.NOT_FOUND, view("1").getResponse().getStatusCode());
+    }
+
+    @Test
+    void bothLegsFail_returnsBadGateway() {
+        responses.put("bank-service", json(HttpStatus.INTERNAL_SERVER_ERROR, "{}"));
+
+        assertEquals(HttpStatus.BAD_GATEWAY, view("1").getResponse().getStatusCode());
+    }
+
+    @Test
+    void nonNumericId_isNotFoundWithoutCallingServices() {
+        assertEquals(HttpStatus.NOT_FOUND, view("abc").getResponse().getStatusCode());
+        assertTrue(requests.isEmpty());
+    }
+}
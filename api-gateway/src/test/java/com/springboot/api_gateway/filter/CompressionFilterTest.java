@@ -0,0 +1,151 @@
+package com.springboot.api_gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressionFilterTest {
+
+    private static final String LARGE_BODY = "{\"accountId\":1,\"_links\":{\"self\":{\"href\":\"/accounts/1\"}}},".repeat(200);
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        CompressionFilter.Config config = new CompressionFilter.Config();
+        config.setRouteId("account-service");
+        filter = new CompressionFilter(meterRegistry).apply(config);
+    }
+
+    private static GatewayFilterChain respond(String body, int chunks, Consumer<HttpHeaders> headers) {
+        return exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.valueOf("application/hal+json"));
+            headers.accept(response.getHeaders());
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            int chunkSize = Math.max(1, (bytes.length + chunks - 1) / chunks);
+            return response.writeWith(Flux.range(0, chunks)
+                    .filter(i -> i * chunkSize < bytes.length)
+                    .map(i -> {
+                        int end = Math.min(bytes.length, (i + 1) * chunkSize);
+                        return response.bufferFactory().wrap(Arrays.copyOfRange(bytes, i * chunkSize, end));
+                    }));
+        };
+    }
+
+    private static MockServerWebExchange get(String acceptEncoding) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/accounts/bank/1");
+        if (acceptEncoding != null) {
+            request.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return MockServerWebExchange.from(request.build());
+    }
+
+    private static byte[] body(MockServerWebExchange exchange) {
+        DataBuffer joined = DataBufferUtils.join(exchange.getResponse().getBody()).block();
+        byte[] bytes = new byte[joined.readableByteCount()];
+        joined.read(bytes);
+        return bytes;
+    }
+
+    private static String gunzip(byte[] bytes) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    @Test
+    void largeStreamedBody_isGzipped() throws IOException {
+        MockServerWebExchange exchange = get("br;q=1.0, gzip;q=0.8");
+
+        filter.filter(exchange, respond(LARGE_BODY, 7, headers -> { })).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals("gzip", headers.getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(List.of(HttpHeaders.ACCEPT_ENCODING), headers.getVary());
+        byte[] compressed = body(exchange);
+        assertTrue(compressed.length < LARGE_BODY.length() / 4);
+        assertEquals(LARGE_BODY, gunzip(compressed));
+        assertEquals(LARGE_BODY.length(), meterRegistry.get("gateway.compression.bytes")
+                .tag("route", "account-service").tag("direction", "in").counter().count());
+        assertEquals(compressed.length, meterRegistry.get("gateway.compression.bytes")
+                .tag("route", "account-service").tag("direction", "out").counter().count());
+    }
+
+    @Test
+    void bodyWithContentLength_dropsLengthAndWeakensEtag() throws IOException {
+        MockServerWebExchange exchange = get("gzip");
+
+        filter.filter(exchange, respond(LARGE_BODY, 1, headers -> {
+            headers.setContentLength(LARGE_BODY.length());
+            headers.setETag("\"v1\"");
+        })).block();
+
+        HttpHeaders headers = exchange.getResponse().getHeaders();
+        assertEquals(-1, headers.getContentLength());
+        assertEquals("W/\"v1\"", headers.getETag());
+        assertEquals(LARGE_BODY, gunzip(body(exchange)));
+    }
+
+    @Test
+    void smallStreamedBody_isSentAsIs() {
+        MockServerWebExchange exchange = get("gzip");
+
+        filter.filter(exchange, respond("{\"id\":1}", 2, headers -> { })).block();
+
+        assertFalse(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertEquals("{\"id\":1}", new String(body(exchange), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void alreadyEncodedBody_isSentAsIs() {
+        MockServerWebExchange exchange = get("gzip");
+
+        filter.filter(exchange, respond(LARGE_BODY, 3, headers -> headers.set(HttpHeaders.CONTENT_ENCODING, "br"))).block();
+
+        assertEquals("br", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, new String(body(exchange), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void clientWithoutGzip_getsPlainBody() {
+        MockServerWebExchange exchange = get("gzip;q=0, identity");
+
+        filter.filter(exchange, respond(LARGE_BODY, 3, headers -> { })).block();
+
+        assertFalse(exchange.getResponse().getHeaders().containsKey(HttpHeaders.CONTENT_ENCODING));
+        assertEquals(LARGE_BODY, new String(body(exchange), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void acceptsGzip_honoursQualityAndWildcard() {
+        assertTrue(CompressionFilter.acceptsGzip(List.of("deflate, GZIP")));
+        assertTrue(CompressionFilter.acceptsGzip(List.of("*;q=0.1")));
+        assertFalse(CompressionFilter.acceptsGzip(List.of("gzip;q=0")));
+        assertFalse(CompressionFilter.acceptsGzip(null));
+    }
+}
@@ -0,0 +1,201 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.loadbalancer.LatencyAwareLoadBalancer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.ConnectException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_LOADBALANCER_RESPONSE_ATTR;
+
+class HedgingFilterTest {
+
+    private final ServiceInstance first = new DefaultServiceInstance("bank-1", "bank-service", "10.0.0.1", 8081, false);
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger attempts;
+    private List<Object> excludedInstances;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        attempts = new AtomicInteger();
+        excludedInstances = new CopyOnWriteArrayList<>();
+    }
+
+    private static HedgingFilter.Config config(int budgetMaxTokens) {
+        HedgingFilter.Config config = new HedgingFilter.Config();
+        config.setRouteId("bank-service");
+        config.setMinDelay(Duration.ofMillis(20));
+        config.setBudgetRatio(0);
+        config.setBudgetMaxTokens(budgetMaxTokens);
+        return config;
+    }
+
+    private GatewayFilter filter(int budgetMaxTokens) {
+        return new HedgingFilter(null, meterRegistry).apply(config(budgetMaxTokens));
+    }
+
+    /**
+     * Stub backend: records which instance each attempt was steered away from, routes the first
+     * attempt to {@link #first} and answers with the attempt number after the given latency.
+     */
+    private GatewayFilterChain backend(Duration... latencies) {
+        return exchange -> {
+            int attempt = attempts.getAndIncrement();
+            Object excluded = exchange.getAttribute(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR);
+            if (excluded != null) {
+                excludedInstances.add(excluded);
+            }
+            if (attempt == 0) {
+                exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(first));
+            }
+            Duration latency = latencies[Math.min(attempt, latencies.length - 1)];
+            return Mono.delay(latency).then(Mono.defer(() -> respond(exchange, "attempt-" + attempt)));
+        };
+    }
+
+    private static Mono<Void> respond(ServerWebExchange exchange, String body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(HttpStatus.OK);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body.getBytes(StandardCharsets.UTF_8))));
+    }
+
+    private static MockServerWebExchange get() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/bank/1"));
+    }
+
+    private void warmUp(GatewayFilter filter) {
+        GatewayFilterChain fast = exchange -> respond(exchange, "warm-up");
+        for (int i = 0; i < 200; i++) {
+            filter.filter(get(), fast).block();
+        }
+    }
+
+    private double counter(String name, String... tags) {
+        return meterRegistry.get(name).tags(tags).counter().count();
+    }
+
+    @Test
+    void slowAttempt_isHedgedToAnotherInstance_andHedgeWins() {
+        GatewayFilter filter = filter(10);
+        warmUp(filter);
+        AtomicBoolean primaryCancelled = new AtomicBoolean();
+        GatewayFilterChain backend = backend(Duration.ofSeconds(5), Duration.ofMillis(10));
+        GatewayFilterChain observed = exchange -> backend.filter(exchange).doOnCancel(() -> primaryCancelled.set(true));
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, observed).block(Duration.ofSeconds(2));
+
+        assertEquals("attempt-1", exchange.getResponse().getBodyAsString().block());
+        assertEquals(List.of(first), excludedInstances);
+        assertTrue(primaryCancelled.get());
+        assertEquals(1.0, counter("gateway.hedging.issued", "reason", "slow"));
+        assertEquals(1.0, counter("gateway.hedging.won"));
+    }
+
+    @Test
+    void fastAttempt_isNotHedged() {
+        GatewayFilter filter = filter(10);
+        warmUp(filter);
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, backend(Duration.ofMillis(1))).block();
+
+        assertEquals("attempt-0", exchange.getResponse().getBodyAsString().block());
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void failedAttempt_isRetriedOnAnotherInstance() {
+        GatewayFilter filter = filter(10);
+        GatewayFilterChain failsFirst = exchange -> {
+            if (attempts.get() == 0) {
+                attempts.incrementAndGet();
+                exchange.getAttributes().put(GATEWAY_LOADBALANCER_RESPONSE_ATTR, new DefaultResponse(first));
+                return Mono.error(new ConnectException("Connection refused"));
+            }
+            return backend(Duration.ZERO).filter(exchange);
+        };
+
+        MockServerWebExchange exchange = get();
+        filter.filter(exchange, failsFirst).block();
+
+        assertEquals("attempt-1", exchange.getResponse().getBodyAsString().block());
+        assertEquals(List.of(first), excludedInstances);
+        assertEquals(1.0, counter("gateway.hedging.issued", "reason", "failed"));
+    }
+
+    @Test
+    void exhaustedBudget_stopsRetries() {
+        GatewayFilter filter = filter(1);
+        GatewayFilterChain down = exchange -> Mono.error(new IllegalStateException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> filter.filter(get(), down).block());
+        assertThrows(IllegalStateException.class, () -> filter.filter(get(), down).block());
+
+        assertEquals(1.0, counter("gateway.hedging.issued", "reason", "failed"));
+        assertEquals(1.0, counter("gateway.hedging.denied"));
+    }
+
+    @Test
+    void routeRefresh_keepsRetryBudget() {
+        HedgingFilter factory = new HedgingFilter(null, meterRegistry);
+        GatewayFilterChain down = exchange -> Mono.error(new IllegalStateException("Connection refused"));
+
+        assertThrows(IllegalStateException.class, () -> factory.apply(config(1)).filter(get(), down).block());
+        assertThrows(IllegalStateException.class, () -> factory.apply(config(1)).filter(get(), down).block());
+
+        assertEquals(1.0, counter("gateway.hedging.issued", "reason", "failed"));
+        assertEquals(1.0, counter("gateway.hedging.denied"));
+    }
+
+    @Test
+    void responseOverOldBufferLimit_isStreamedThrough() {
+        GatewayFilter filter = filter(10);
+        byte[] chunk = new byte[64 * 1024];
+        GatewayFilterChain export = exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            return response.writeWith(Flux.range(0, 64).map(i -> response.bufferFactory().wrap(chunk)));
+        };
+        MockServerWebExchange exchange = get();
+
+        filter.filter(exchange, export).block(Duration.ofSeconds(5));
+
+        long size = exchange.getResponse().getBody().map(DataBuffer::readableByteCount).reduce(0, Integer::sum).block();
+        assertEquals(64L * chunk.length, size);
+        assertEquals(HttpStatus.OK, exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    void nonIdempotentRequests_passThrough() {
+        GatewayFilter filter = filter(10);
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/bank"));
+
+        filter.filter(exchange, backend(Duration.ZERO)).block();
+
+        assertEquals("attempt-0", exchange.getResponse().getBodyAsString().block());
+    }
+}
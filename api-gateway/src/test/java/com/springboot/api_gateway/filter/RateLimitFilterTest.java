@@ -0,0 +1,83 @@
+package com.springboot.api_gateway.filter;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class RateLimitFilterTest {
+
+    private GatewayFilter filter;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        RateLimitFilter.Config config = new RateLimitFilter.Config();
+        config.setReplenishRate(1);
+        config.setBurstCapacity(2);
+        filter = new RateLimitFilter().apply(config);
+        chain = mock(GatewayFilterChain.class);
+        when(chain.filter(any())).thenReturn(Mono.empty());
+    }
+
+    private MockServerWebExchange call(String subject, String clientAddress) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/bank")
+                .remoteAddress(new InetSocketAddress(clientAddress, 40000)));
+        if (subject != null) {
+            Claims claims = Jwts.claims().setSubject(subject);
+            exchange.getAttributes().put(AuthenticationFilter.CLAIMS_ATTR, claims);
+        }
+        filter.filter(exchange, chain).block();
+        return exchange;
+    }
+
+    @Test
+    void requestsWithinBurst_areForwarded() {
+        assertNull(call("alice", "10.0.0.1").getResponse().getStatusCode());
+        assertNull(call("alice", "10.0.0.1").getResponse().getStatusCode());
+
+        verify(chain, times(2)).filter(any());
+    }
+
+    @Test
+    void requestsBeyondBurst_areRejectedWithRetryAfter() {
+        call("alice", "10.0.0.1");
+        call("alice", "10.0.0.1");
+
+        MockServerWebExchange rejected = call("alice", "10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        assertEquals("1", rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        verify(chain, times(2)).filter(any());
+    }
+
+    @Test
+    void subjectsHaveSeparateBuckets() {
+        call("alice", "10.0.0.1");
+        call("alice", "10.0.0.1");
+
+        assertNull(call("bob", "10.0.0.1").getResponse().getStatusCode());
+    }
+
+    @Test
+    void anonymousRequests_areKeyedByClientAddress() {
+        call(null, "10.0.0.1");
+        call(null, "10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, call(null, "10.0.0.1").getResponse().getStatusCode());
+        assertNull(call(null, "10.0.0.2").getResponse().getStatusCode());
+    }
+}
@@ -0,0 +1,86 @@
+package com.springboot.api_gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestBodyLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private GatewayFilter filter;
+    private AtomicLong forwardedBytes;
+    private GatewayFilterChain downstream;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        RequestBodyLimitFilter.Config config = new RequestBodyLimitFilter.Config();
+        config.setRouteId("bank-service");
+        config.setMaxSize(DataSize.ofBytes(1024));
+        filter = new RequestBodyLimitFilter(meterRegistry).apply(config);
+        forwardedBytes = new AtomicLong();
+        downstream = exchange -> exchange.getRequest().getBody()
+                .doOnNext(buffer -> forwardedBytes.addAndGet(buffer.readableByteCount()))
+                .then(Mono.fromRunnable(() -> exchange.getResponse().setStatusCode(HttpStatus.CREATED)));
+    }
+
+    private static Flux<DataBuffer> chunks(int count, int size) {
+        return Flux.range(0, count).map(i -> DefaultDataBufferFactory.sharedInstance.wrap(new byte[size]));
+    }
+
+    private double rejected() {
+        return meterRegistry.get("gateway.request.body.rejected").tag("route", "bank-service").counter().count();
+    }
+
+    @Test
+    void declaredLengthOverLimit_isRejectedBeforeReading() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/bank")
+                .contentLength(4096)
+                .body(chunks(4, 1024)));
+
+        filter.filter(exchange, downstream).block();
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertEquals(0, forwardedBytes.get());
+        assertEquals(1.0, rejected());
+    }
+
+    @Test
+    void streamedBodyOverLimit_isCutOffWhileStreaming() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/bank")
+                .body(chunks(8, 512)));
+
+        filter.filter(exchange, downstream).block();
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, exchange.getResponse().getStatusCode());
+        assertEquals(1024, forwardedBytes.get());
+        assertTrue(exchange.getResponse().getBodyAsString().block().contains("Request body is too large"));
+        assertEquals(1.0, rejected());
+    }
+
+    @Test
+    void streamedBodyWithinLimit_passesThrough() {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/bank")
+                .body(chunks(2, 512)));
+
+        filter.filter(exchange, downstream).block();
+
+        assertEquals(HttpStatus.CREATED, exchange.getResponse().getStatusCode());
+        assertEquals(1024, forwardedBytes.get());
+        assertEquals(0.0, rejected());
+    }
+}
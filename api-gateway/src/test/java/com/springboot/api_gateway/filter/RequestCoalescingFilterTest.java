@@ -0,0 +1,129 @@
+package com.springboot.api_gateway.filter;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescingFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicInteger downstreamCalls;
+    private GatewayFilterChain slowChain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        downstreamCalls = new AtomicInteger();
+        slowChain = exchange -> Mono.delay(Duration.ofMillis(200)).then(Mono.defer(() -> {
+            int call = downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            byte[] body = ("response-" + call).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        }));
+    }
+
+    private GatewayFilter filter(Duration maxWait) {
+        RequestCoalescingFilter.Config config = new RequestCoalescingFilter.Config();
+        config.setRouteId("bank-service");
+        config.setMaxWait(maxWait);
+        return new RequestCoalescingFilter(meterRegistry).apply(config);
+    }
+
+    private List<String> concurrentGets(GatewayFilter filter, int count, String path) {
+        List<MockServerWebExchange> exchanges = Flux.range(0, count)
+                .map(i -> MockServerWebExchange.from(MockServerHttpRequest.get(path)))
+                .collectList()
+                .block();
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> filter.filter(exchange, slowChain))
+                .blockLast();
+        return exchanges.stream().map(exchange -> exchange.getResponse().getBodyAsString().block()).toList();
+    }
+
+    @Test
+    void concurrentIdenticalGets_shareOneDownstreamCall() {
+        List<String> bodies = concurrentGets(filter(Duration.ofSeconds(5)), 5, "/bank/1/accounts");
+
+        assertEquals(1, downstreamCalls.get());
+        assertTrue(bodies.stream().allMatch("response-1"::equals));
+        assertEquals(4.0, meterRegistry.get("gateway.coalescing.requests").tag("result", "coalesced").counter().count());
+    }
+
+    @Test
+    void sequentialGets_eachGoDownstream() {
+        GatewayFilter filter = filter(Duration.ofSeconds(5));
+
+        concurrentGets(filter, 1, "/bank/1/accounts");
+        concurrentGets(filter, 1, "/bank/1/accounts");
+
+        assertEquals(2, downstreamCalls.get());
+    }
+
+    @Test
+    void waitersFallBackAfterMaxWait() {
+        concurrentGets(filter(Duration.ofMillis(10)), 3, "/bank/1/accounts");
+
+        assertEquals(3, downstreamCalls.get());
+        assertEquals(2.0, meterRegistry.get("gateway.coalescing.requests").tag("result", "fallback").counter().count());
+    }
+
+    @Test
+    void followers_getTheUncompressedResponse_andCompressItThemselves() throws IOException {
+        CompressionFilter.Config compressionConfig = new CompressionFilter.Config();
+        compressionConfig.setRouteId("bank-service");
+        compressionConfig.setMinSize(DataSize.ofBytes(1));
+        GatewayFilter compression = new CompressionFilter(meterRegistry).apply(compressionConfig);
+        GatewayFilter coalescing = filter(Duration.ofSeconds(5));
+        GatewayFilterChain textChain = exchange -> {
+            exchange.getResponse().getHeaders().setContentType(MediaType.TEXT_PLAIN);
+            return slowChain.filter(exchange);
+        };
+        List<MockServerWebExchange> exchanges = Flux.range(0, 3)
+                .map(i -> MockServerWebExchange.from(MockServerHttpRequest.get("/bank/1/accounts")
+                        .header(HttpHeaders.ACCEPT_ENCODING, "gzip")))
+                .collectList()
+                .block();
+
+        Flux.fromIterable(exchanges)
+                .flatMap(exchange -> compression.filter(exchange, compressed -> coalescing.filter(compressed, textChain)))
+                .blockLast();
+
+        assertEquals(1, downstreamCalls.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals("gzip", exchange.getResponse().getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+            byte[] body = DataBufferUtils.join(exchange.getResponse().getBody())
+                    .map(buffer -> {
+                        byte[] bytes = new byte[buffer.readableByteCount()];
+                        buffer.read(bytes);
+                        return bytes;
+                    })
+                    .block();
+            try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+                assertEquals("response-1", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+    }
+}
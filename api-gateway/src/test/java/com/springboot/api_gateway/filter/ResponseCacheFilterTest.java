@@ -0,0 +1,108 @@
+package com.springboot.api_gateway.filter;
+
+import io.jsonwebtoken.Jwts;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseCacheFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCacheFilter factory;
+    private GatewayFilter bankFilter;
+    private GatewayFilter accountFilter;
+    private AtomicInteger downstreamCalls;
+    private GatewayFilterChain chain;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        factory = new ResponseCacheFilter(meterRegistry);
+        bankFilter = factory.apply(config("bank-service", List.of("account-service")));
+        accountFilter = factory.apply(config("account-service", List.of()));
+        downstreamCalls = new AtomicInteger();
+        chain = exchange -> {
+            int call = downstreamCalls.incrementAndGet();
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.OK);
+            byte[] body = ("response-" + call).getBytes(StandardCharsets.UTF_8);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+        };
+    }
+
+    private static ResponseCacheFilter.Config config(String routeId, List<String> invalidateRoutes) {
+        ResponseCacheFilter.Config config = new ResponseCacheFilter.Config();
+        config.setRouteId(routeId);
+        config.setInvalidateRoutes(invalidateRoutes);
+        return config;
+    }
+
+    private String call(GatewayFilter filter, HttpMethod method, String path, String subject) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.method(method, path));
+        exchange.getAttributes().put(AuthenticationFilter.CLAIMS_ATTR, Jwts.claims().setSubject(subject));
+        filter.filter(exchange, chain).block();
+        return exchange.getResponse().getBodyAsString().block();
+    }
+
+    @Test
+    void repeatedGet_isServedFromCache() {
+        assertEquals("response-1", call(bankFilter, HttpMethod.GET, "/bank/1", "alice"));
+        assertEquals("response-1", call(bankFilter, HttpMethod.GET, "/bank/1", "alice"));
+
+        assertEquals(1, downstreamCalls.get());
+        assertEquals(0.5, meterRegistry.get("gateway.response-cache.hit-ratio").tag("route", "bank-service").gauge().value());
+        assertTrue(meterRegistry.get("gateway.response-cache.bytes").tag("route", "bank-service").gauge().value() > 0);
+    }
+
+    @Test
+    void entries_arePartitionedBySubject() {
+        call(bankFilter, HttpMethod.GET, "/bank/1", "alice");
+
+        assertEquals("response-2", call(bankFilter, HttpMethod.GET, "/bank/1", "bob"));
+    }
+
+    @Test
+    void write_invalidatesSamePathBranch() {
+        call(bankFilter, HttpMethod.GET, "/bank", "alice");
+        call(bankFilter, HttpMethod.GET, "/bank/1", "alice");
+        call(bankFilter, HttpMethod.GET, "/bank/2", "alice");
+
+        call(bankFilter, HttpMethod.PUT, "/bank/1", "bob");
+
+        assertEquals("response-5", call(bankFilter, HttpMethod.GET, "/bank", "alice"));
+        assertEquals("response-6", call(bankFilter, HttpMethod.GET, "/bank/1", "alice"));
+        assertEquals("response-3", call(bankFilter, HttpMethod.GET, "/bank/2", "alice"));
+    }
+
+    @Test
+    void write_invalidatesConfiguredRoutes() {
+        call(accountFilter, HttpMethod.GET, "/accounts/bank/1", "alice");
+
+        call(bankFilter, HttpMethod.POST, "/bank/1/accounts", "alice");
+
+        assertEquals("response-3", call(accountFilter, HttpMethod.GET, "/accounts/bank/1", "alice"));
+    }
+
+    @Test
+    void reapply_withSameSettings_keepsCachedEntries() {
+        call(bankFilter, HttpMethod.GET, "/bank/1", "alice");
+
+        GatewayFilter refreshed = factory.apply(config("bank-service", List.of("account-service")));
+
+        assertEquals("response-1", call(refreshed, HttpMethod.GET, "/bank/1", "alice"));
+    }
+}
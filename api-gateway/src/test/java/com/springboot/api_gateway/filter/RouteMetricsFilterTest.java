@@ -0,0 +1,118 @@
+package com.springboot.api_gateway.filter;
+
+import com.springboot.api_gateway.metrics.BufferedBytes;
+import com.springboot.api_gateway.metrics.RouteHistograms;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RouteMetricsFilterTest {
+
+    @Mock
+    private RouteHistograms histograms;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BufferedBytes bufferedBytes = new BufferedBytes(meterRegistry);
+
+    @InjectMocks
+    private RouteMetricsFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    private static MockServerWebExchange routed(MockServerHttpRequest request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, Route.async()
+                .id("bank-service")
+                .uri(URI.create("lb://bank-service"))
+                .predicate(e -> true)
+                .build());
+        return exchange;
+    }
+
+    @Test
+    void streamedResponse_isCountedAsItIsWritten() {
+        GatewayFilterChain chain = exchange -> {
+            ServerHttpResponse response = exchange.getResponse();
+            response.setStatusCode(HttpStatus.CREATED);
+            return response.writeWith(Flux.just("hello ", "world")
+                    .map(part -> response.bufferFactory().wrap(part.getBytes(StandardCharsets.UTF_8))));
+        };
+        MockServerWebExchange exchange = routed(MockServerHttpRequest.post("/bank").contentLength(42).body("{}"));
+
+        filter.filter(exchange, chain).block();
+
+        verify(histograms).record(eq("bank-service"), eq(201), anyLong(), eq(42L), eq(11L));
+    }
+
+    @Test
+    void failedExchange_isRecordedWithItsStatus() {
+        GatewayFilterChain chain = exchange -> Mono.error(new ResponseStatusException(HttpStatus.GATEWAY_TIMEOUT));
+
+        assertThrows(ResponseStatusException.class, () -> filter.filter(routed(MockServerHttpRequest.get("/bank/1").build()), chain).block());
+
+        verify(histograms).record(eq("bank-service"), eq(504), anyLong(), eq(-1L), eq(0L));
+    }
+
+    @Test
+    void requestWithoutContentLength_isRecordedAsUnknownSize() {
+        MockServerWebExchange exchange = routed(MockServerHttpRequest.post("/bank")
+                .header("Transfer-Encoding", "chunked")
+                .body(Flux.just(DefaultDataBufferFactory.sharedInstance.wrap(new byte[10]))));
+
+        filter.filter(exchange, e -> Mono.empty()).block();
+
+        verify(histograms).record(eq("bank-service"), eq(200), anyLong(), eq(-1L), eq(0L));
+    }
+
+    @Test
+    void bufferedBytes_areTrackedForTheExchange() {
+        GatewayFilterChain chain = exchange -> Mono.fromRunnable(() -> {
+            BufferedBytes.Tracker tracker = BufferedBytes.of(exchange);
+            tracker.hold(100);
+            tracker.release(40);
+            tracker.hold(10);
+            assertEquals(70.0, meterRegistry.get("gateway.buffered.bytes").gauge().value());
+        });
+
+        filter.filter(routed(MockServerHttpRequest.get("/bank/1").build()), chain).block();
+
+        assertEquals(0.0, meterRegistry.get("gateway.buffered.bytes").gauge().value());
+        assertEquals(100.0, meterRegistry.get("gateway.exchange.buffered.bytes").tag("route", "bank-service")
+                .summary().max());
+    }
+
+    @Test
+    void unroutedExchange_isNotRecorded() {
+        filter.filter(MockServerWebExchange.from(MockServerHttpRequest.get("/health")), exchange -> Mono.empty()).block();
+
+        verifyNoInteractions(histograms);
+    }
+}
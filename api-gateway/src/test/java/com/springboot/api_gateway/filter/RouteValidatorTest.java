@@ -0,0 +1,84 @@
+package com.springboot.api_gateway.filter;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.event.RefreshRoutesResultEvent;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR;
+
+class RouteValidatorTest {
+
+    private RouteValidator routeValidator;
+
+    @BeforeEach
+    void setUp() {
+        routeValidator = new RouteValidator();
+        refresh(route("security-service", "/auth/register,/auth/token"), route("bank-service", null));
+    }
+
+    private static Route route(String id, String openPaths) {
+        Route.AsyncBuilder builder = Route.async()
+                .id(id)
+                .uri("lb://" + id)
+                .predicate(exchange -> true);
+        if (openPaths != null) {
+            builder.metadata(RouteValidator.OPEN_PATHS_METADATA, openPaths);
+        }
+        return builder.build();
+    }
+
+    private void refresh(Route... routes) {
+        routeValidator.onRoutesRefreshed(new RefreshRoutesResultEvent((RouteLocator) () -> Flux.just(routes)));
+    }
+
+    private boolean isSecured(String routeId, String path) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get(path));
+        if (routeId != null) {
+            exchange.getAttributes().put(GATEWAY_ROUTE_ATTR, route(routeId, null));
+        }
+        return routeValidator.isSecured(exchange);
+    }
+
+    @Test
+    void openPath_isNotSecured() {
+        assertFalse(isSecured("security-service", "/auth/token"));
+        assertFalse(isSecured("security-service", "/auth/register/"));
+    }
+
+    @Test
+    void openPath_onlyMatchesWholeSegments() {
+        assertTrue(isSecured("security-service", "/auth/tokens"));
+        assertTrue(isSecured("security-service", "/auth/validate"));
+    }
+
+    @Test
+    void openPath_doesNotLeakIntoOtherRoutes() {
+        assertTrue(isSecured("bank-service", "/bank/auth/token"));
+        assertTrue(isSecured("bank-service", "/bank/eureka"));
+    }
+
+    @Test
+    void openPath_rejectsDotSegments() {
+        assertTrue(isSecured("security-service", "/auth/token/../../bank"));
+    }
+
+    @Test
+    void unknownRoute_isSecured() {
+        assertTrue(isSecured(null, "/auth/token"));
+        assertTrue(isSecured("unknown", "/auth/token"));
+    }
+
+    @Test
+    void refresh_replacesOpenPaths() {
+        refresh(route("security-service", "/auth/validate"));
+
+        assertTrue(isSecured("security-service", "/auth/token"));
+        assertFalse(isSecured("security-service", "/auth/validate"));
+    }
+}
@@ -0,0 +1,155 @@
+package com.springboot.api_gateway.loadbalancer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Simulates a steady request stream against three stub instances, one of which is stalling,
+ * and compares the resulting tail latency with plain round robin.
+ */
+class LatencyAwareLoadBalancerTest {
+
+    private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int REQUESTS = 20_000;
+
+    private final ServiceInstance fastA = new DefaultServiceInstance("bank-1", "bank-service", "10.0.0.1", 8081, false);
+    private final ServiceInstance fastB = new DefaultServiceInstance("bank-2", "bank-service", "10.0.0.2", 8081, false);
+    private final ServiceInstance slow = new DefaultServiceInstance("bank-3", "bank-service", "10.0.0.3", 8081, false);
+    private final List<ServiceInstance> instances = List.of(fastA, fastB, slow);
+    private final Map<ServiceInstance, Long> latencies = Map.of(fastA, 5 * MILLIS, fastB, 5 * MILLIS, slow, 200 * MILLIS);
+
+    private AtomicLong clock;
+    private LatencyAwareLoadBalancer loadBalancer;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        @SuppressWarnings("unchecked")
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        loadBalancer = new LatencyAwareLoadBalancer(provider, "bank-service",
+                Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(1), clock::get);
+    }
+
+    private record Outcome(long p99, int slowRequests) {
+    }
+
+    private record InFlight(long completesAt, Request<RequestDataContext> request, Response<ServiceInstance> response) {
+    }
+
+    /**
+     * One request per millisecond of virtual time; completions are delivered in time order.
+     */
+    private Outcome simulate(IntFunction<Response<ServiceInstance>> chooser) {
+        PriorityQueue<InFlight> inFlight = new PriorityQueue<>(Comparator.comparingLong(InFlight::completesAt));
+        List<Long> observed = new ArrayList<>();
+        int slowRequests = 0;
+        for (int i = 0; i < REQUESTS; i++) {
+            long now = i * MILLIS;
+            while (!inFlight.isEmpty() && inFlight.peek().completesAt() <= now) {
+                InFlight done = inFlight.poll();
+                clock.set(done.completesAt());
+                loadBalancer.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, done.request(), done.response()));
+            }
+            clock.set(now);
+            Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+            Response<ServiceInstance> response = chooser.apply(i);
+            loadBalancer.onStartRequest(request, response);
+            long latency = latencies.get(response.getServer());
+            if (response.getServer() == slow) {
+                slowRequests++;
+            }
+            observed.add(latency);
+            inFlight.add(new InFlight(now + latency, request, response));
+        }
+        observed.sort(Long::compare);
+        return new Outcome(observed.get((int) (observed.size() * 0.99)), slowRequests);
+    }
+
+    @Test
+    void stallingInstance_isAvoided_andTailLatencyDrops() {
+        Outcome roundRobin = simulate(i -> new DefaultResponse(instances.get(i % instances.size())));
+        setUp();
+        Outcome latencyAware = simulate(i -> loadBalancer.choose(instances));
+
+        assertEquals(200 * MILLIS, roundRobin.p99());
+        assertEquals(5 * MILLIS, latencyAware.p99());
+        assertTrue(latencyAware.slowRequests() < REQUESTS / 100,
+                "slow instance received " + latencyAware.slowRequests() + " requests");
+    }
+
+    @Test
+    void slowStart_favoursEstablishedInstance() {
+        LatencyAwareLoadBalancer withSlowStart = new LatencyAwareLoadBalancer(mock(ObjectProvider.class), "bank-service",
+                Duration.ofSeconds(10), Duration.ofSeconds(30), Duration.ofSeconds(1), clock::get);
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext());
+        Response<ServiceInstance> response = new DefaultResponse(fastA);
+        withSlowStart.onStartRequest(request, response);
+        clock.set(5 * MILLIS);
+        withSlowStart.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, response));
+        clock.set(TimeUnit.SECONDS.toNanos(60));
+
+        int newInstanceChosen = 0;
+        for (int i = 0; i < 100; i++) {
+            if (withSlowStart.choose(List.of(fastA, fastB)).getServer() == fastB) {
+                newInstanceChosen++;
+            }
+        }
+
+        assertEquals(0, newInstanceChosen);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void excludedInstance_isSkippedWhileAnotherIsAvailable() {
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        ServiceInstanceListSupplier supplier = mock(ServiceInstanceListSupplier.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        when(supplier.get(any())).thenReturn(Flux.just(List.of(fastA, fastB)));
+        LatencyAwareLoadBalancer balancer = new LatencyAwareLoadBalancer(provider, "bank-service",
+                Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(1), clock::get);
+        Map<String, Object> attributes = Map.of(LatencyAwareLoadBalancer.EXCLUDED_INSTANCE_ATTR, fastA);
+        Request<RequestDataContext> request = new DefaultRequest<>(new RequestDataContext(
+                new RequestData(HttpMethod.GET, URI.create("http://bank-service/bank"), new HttpHeaders(),
+                        new LinkedMultiValueMap<>(), attributes)));
+
+        for (int i = 0; i < 20; i++) {
+            assertSame(fastB, balancer.choose(request).block().getServer());
+        }
+    }
+
+    @Test
+    void noInstances_returnsEmptyResponse() {
+        assertFalse(loadBalancer.choose(List.of()).hasServer());
+    }
+}
@@ -0,0 +1,92 @@
+package com.springboot.api_gateway.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RouteHistogramsTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private AtomicLong clock;
+    private SimpleMeterRegistry meterRegistry;
+    private RouteHistograms histograms;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        meterRegistry = new SimpleMeterRegistry();
+        histograms = new RouteHistograms(meterRegistry, Duration.ofSeconds(30), 3, new double[]{0.5, 0.99}, clock::get);
+    }
+
+    private void recordLatencies(String routeId, int status, long latencyMillis, int count) {
+        for (int i = 0; i < count; i++) {
+            histograms.record(routeId, status, TimeUnit.MILLISECONDS.toNanos(latencyMillis), 0, 512);
+        }
+    }
+
+    private double latencyGauge(String routeId, String status, String phi) {
+        return meterRegistry.get("gateway.route.latency.percentile")
+                .tags("route", routeId, "status", status, "phi", phi)
+                .gauge().value();
+    }
+
+    @Test
+    void percentiles_arePublishedOnceTheirIntervalCompletes() {
+        recordLatencies("bank-service", 200, 10, 99);
+        recordLatencies("bank-service", 200, 500, 1);
+
+        assertEquals(0.0, latencyGauge("bank-service", "200", "0.5"));
+
+        clock.set(10 * SECOND);
+        assertEquals(0.010, latencyGauge("bank-service", "200", "0.5"), 0.001);
+        assertEquals(0.010, latencyGauge("bank-service", "200", "0.99"), 0.001);
+        assertEquals(512.0, meterRegistry.get("gateway.route.response.size.percentile")
+                .tags("route", "bank-service", "status", "200", "phi", "0.5").gauge().value(), 5);
+    }
+
+    @Test
+    void statuses_areTrackedSeparately() {
+        recordLatencies("bank-service", 200, 10, 10);
+        recordLatencies("bank-service", 503, 2_000, 10);
+        clock.set(10 * SECOND);
+
+        assertEquals(0.010, latencyGauge("bank-service", "200", "0.99"), 0.001);
+        assertEquals(2.0, latencyGauge("bank-service", "503", "0.99"), 0.05);
+    }
+
+    @Test
+    void oldIntervals_rollOutOfTheWindow() {
+        recordLatencies("bank-service", 200, 10, 10);
+        clock.set(10 * SECOND);
+        assertEquals(0.010, latencyGauge("bank-service", "200", "0.5"), 0.001);
+
+        clock.set(40 * SECOND);
+
+        assertEquals(0.0, latencyGauge("bank-service", "200", "0.5"));
+    }
+
+    @Test
+    void snapshots_containDecodableHistograms() throws Exception {
+        recordLatencies("account-service", 404, 3, 5);
+        clock.set(10 * SECOND);
+
+        RouteHistograms.HistogramSnapshot latency = histograms.snapshots().get("account-service").get("404").latency();
+
+        assertEquals(5, latency.count());
+        assertEquals("microseconds", latency.unit());
+        Histogram decoded = Histogram.decodeFromCompressedByteBuffer(
+                ByteBuffer.wrap(Base64.getDecoder().decode(latency.encoded())), 0);
+        assertEquals(5, decoded.getTotalCount());
+        assertEquals(3_000, decoded.getValueAtPercentile(50), 30);
+    }
+}
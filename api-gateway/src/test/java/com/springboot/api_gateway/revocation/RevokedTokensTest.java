@@ -0,0 +1,62 @@
+package com.springboot.api_gateway.revocation;
+
+import com.springboot.api_gateway.util.BloomFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevokedTokensTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RevokedTokens revokedTokens;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        revokedTokens = new RevokedTokens(meterRegistry);
+    }
+
+    @Test
+    void isRevoked_falseBeforeFirstSnapshot() {
+        assertEquals(-1L, revokedTokens.version());
+        assertFalse(revokedTokens.isRevoked("token-1"));
+        assertFalse(revokedTokens.isRevoked(null));
+    }
+
+    @Test
+    void update_replacesSnapshot() {
+        revokedTokens.update(7L, List.of("token-1", "token-2"));
+
+        assertEquals(7L, revokedTokens.version());
+        assertTrue(revokedTokens.isRevoked("token-1"));
+        assertTrue(revokedTokens.isRevoked("token-2"));
+        assertFalse(revokedTokens.isRevoked("token-3"));
+        assertEquals(2.0, meterRegistry.get("gateway.revoked-tokens").gauge().value());
+
+        revokedTokens.update(8L, List.of("token-2"));
+
+        assertFalse(revokedTokens.isRevoked("token-1"));
+        assertTrue(revokedTokens.isRevoked("token-2"));
+    }
+
+    @Test
+    void bloomFilter_hasNoFalseNegativesAndFewFalsePositives() {
+        Set<String> revoked = IntStream.range(0, 10_000).mapToObj(i -> UUID.randomUUID().toString())
+                .collect(Collectors.toSet());
+        BloomFilter bloom = BloomFilter.of(revoked, 0.01);
+
+        revoked.forEach(jti -> assertTrue(bloom.mightContain(jti)));
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> bloom.mightContain(UUID.randomUUID().toString()))
+                .count();
+        assertTrue(falsePositives < 300, "false positives: " + falsePositives);
+    }
+}
@@ -0,0 +1,86 @@
+package com.springboot.api_gateway.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GradientConcurrencyLimiterTest {
+
+    private static final long SERVICE_TIME_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Stub backend with {@code workers} threads: up to that many requests take the service time,
+     * beyond it requests queue and their RTT grows with the backlog.
+     */
+    private static long rtt(int inFlight, int workers) {
+        return SERVICE_TIME_NANOS * Math.max(1, (inFlight + workers - 1) / workers);
+    }
+
+    /**
+     * Drives the limiter with more demand than it admits and returns the limit it settles on.
+     */
+    private static int settle(GradientConcurrencyLimiter limiter, int workers, int rounds) {
+        for (int round = 0; round < rounds; round++) {
+            int admitted = 0;
+            while (admitted < 1_000 && limiter.tryAcquire()) {
+                admitted++;
+            }
+            long rtt = rtt(admitted, workers);
+            for (int i = 0; i < admitted; i++) {
+                limiter.release(rtt, false);
+            }
+        }
+        return limiter.getLimit();
+    }
+
+    @Test
+    void tryAcquire_stopsAtLimit() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(2, 1, 10);
+
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+        assertEquals(2, limiter.getInFlight());
+
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void limit_shrinksWhenBackendSaturates() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(20, 5, 200);
+        int healthyLimit = settle(limiter, 100, 100);
+
+        int saturatedLimit = settle(limiter, 10, 20);
+
+        assertTrue(saturatedLimit < healthyLimit / 2,
+                "limit should drop from " + healthyLimit + " towards the 10 remaining workers but was " + saturatedLimit);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void limit_growsWhileLatencyStaysFlat() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(5, 5, 200);
+
+        int limit = settle(limiter, 100, 100);
+
+        assertTrue(limit > 50, "limit should grow towards the backend's 100 workers but was " + limit);
+    }
+
+    @Test
+    void drops_backOffMultiplicatively() {
+        GradientConcurrencyLimiter limiter = new GradientConcurrencyLimiter(100, 5, 200);
+
+        limiter.tryAcquire();
+        limiter.release(SERVICE_TIME_NANOS, true);
+
+        assertEquals(90, limiter.getLimit());
+    }
+
+    @Test
+    void invalidBounds_areRejected() {
+        assertThrows(IllegalArgumentException.class, () -> new GradientConcurrencyLimiter(1, 5, 10));
+    }
+}
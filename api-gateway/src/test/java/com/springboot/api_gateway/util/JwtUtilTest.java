@@ -0,0 +1,72 @@
+package com.springboot.api_gateway.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtUtilTest {
+
+    private static final String SECRET = "Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M=";
+
+    private SimpleMeterRegistry meterRegistry;
+    private JwtUtil jwtUtil;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        jwtUtil = new JwtUtil(100, meterRegistry);
+        jwtUtil.setSECRET(SECRET);
+    }
+
+    private String token(String subject, long expiresInMillis) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + expiresInMillis))
+                .signWith(jwtUtil.getSignKey(), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    @Test
+    void validateToken_returnsClaimsForValidToken() {
+        Claims claims = jwtUtil.validateToken(token("user", 60_000));
+
+        assertEquals("user", claims.getSubject());
+    }
+
+    @Test
+    void validateToken_servesRepeatedTokenFromCache() {
+        String token = token("user", 60_000);
+
+        Claims first = jwtUtil.validateToken(token);
+        Claims second = jwtUtil.validateToken(token);
+
+        assertSame(first, second);
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void validateToken_rejectsTamperedToken() {
+        String token = token("user", 60_000);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(SignatureException.class, () -> jwtUtil.validateToken(tampered));
+    }
+
+    @Test
+    void validateToken_rejectsExpiredToken() {
+        String token = token("user", -1_000);
+
+        assertThrows(ExpiredJwtException.class, () -> jwtUtil.validateToken(token));
+    }
+}
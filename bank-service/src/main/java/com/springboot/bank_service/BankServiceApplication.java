@@ -13,6 +13,7 @@ public class BankServiceApplication {
 		Dotenv dotenv=Dotenv.load();
 		System.setProperty("DB_USERNAME",dotenv.get("DB_USERNAME"));
 		System.setProperty("DB_PASSWORD",dotenv.get("DB_PASSWORD"));
+		System.setProperty("IDENTITY_SECRET",dotenv.get("IDENTITY_SECRET"));
 		SpringApplication.run(BankServiceApplication.class, args);
 	}
 
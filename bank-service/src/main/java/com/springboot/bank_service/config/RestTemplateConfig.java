@@ -1,14 +1,127 @@
 package com.springboot.bank_service.config;
 
+import com.springboot.bank_service.loadbalancer.FailoverLoadBalancerInterceptor;
+import com.springboot.bank_service.util.Constants;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
 @Configuration
 public class RestTemplateConfig {
+
+    private static final String POOL_NAME = "account-service";
+    private static final TimeValue VALIDATE_AFTER_INACTIVITY = TimeValue.ofSeconds(2);
+
+    /**
+     * Keep-alive connections to account-service, shared by every call the service makes. Pool
+     * usage is published as {@code httpcomponents.httpclient.pool.*{httpclient=account-service}}:
+     * leased and available connections, and callers waiting for one.
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager accountServiceConnectionManager(
+            @Value("${account.client.max-connections:200}") int maxConnections,
+            @Value("${account.client.max-connections-per-route:50}") int maxConnectionsPerRoute,
+            @Value("${account.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${account.client.read-timeout:5s}") Duration readTimeout,
+            MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(connectTimeout))
+                        .setSocketTimeout(Timeout.of(readTimeout))
+                        .setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY)
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, POOL_NAME).bindTo(meterRegistry);
+        return connectionManager;
+    }
+
+    /**
+     * Waiting for a free connection is bounded by {@code connection-request-timeout}, so a
+     * saturated pool fails calls quickly instead of queueing them; connections idle for longer
+     * than {@code idle-eviction} are closed in the background.
+     */
+    @Bean
+    public CloseableHttpClient accountServiceHttpClient(
+            PoolingHttpClientConnectionManager accountServiceConnectionManager,
+            @Value("${account.client.connection-request-timeout:1s}") Duration connectionRequestTimeout,
+            @Value("${account.client.read-timeout:5s}") Duration readTimeout,
+            @Value("${account.client.idle-eviction:30s}") Duration idleEviction) {
+        return HttpClients.custom()
+                .setConnectionManager(accountServiceConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(connectionRequestTimeout))
+                        .setResponseTimeout(Timeout.of(readTimeout))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleEviction))
+                .build();
+    }
+
+    /**
+     * Resolves {@code account.service.url}'s host through Eureka. Switched off with
+     * {@code account.client.load-balanced=false} to call a fixed URL instead.
+     */
     @Bean
-    public RestTemplate restTemplate(){
-        return new RestTemplate();
+    @ConditionalOnProperty(name = "account.client.load-balanced", havingValue = "true", matchIfMissing = true)
+    public FailoverLoadBalancerInterceptor failoverLoadBalancerInterceptor(
+            LoadBalancerClient loadBalancerClient,
+            @Value("${account.client.max-attempts:2}") int maxAttempts,
+            MeterRegistry meterRegistry) {
+        return new FailoverLoadBalancerInterceptor(loadBalancerClient, maxAttempts, meterRegistry);
+    }
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder restTemplateBuilder, CloseableHttpClient accountServiceHttpClient,
+                                     ObjectProvider<FailoverLoadBalancerInterceptor> loadBalancerInterceptor){
+        List<ClientHttpRequestInterceptor> interceptors = new ArrayList<>();
+        interceptors.add(identityForwardingInterceptor());
+        // Last, so that a failover re-executes only the actual HTTP call.
+        loadBalancerInterceptor.ifAvailable(interceptors::add);
+        return restTemplateBuilder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(accountServiceHttpClient))
+                .additionalInterceptors(interceptors)
+                .build();
+    }
+
+    /**
+     * Passes the gateway-signed identity of the current request on to account-service, so calls
+     * made on a user's behalf carry that user's identity.
+     */
+    static ClientHttpRequestInterceptor identityForwardingInterceptor() {
+        return (request, body, execution) -> {
+            if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+                String identity = attributes.getRequest().getHeader(Constants.IDENTITY_HEADER);
+                if (identity != null) {
+                    request.getHeaders().set(Constants.IDENTITY_HEADER, identity);
+                }
+            }
+            return execution.execute(request, body);
+        };
     }
 
 }
@@ -1,14 +1,17 @@
 package com.springboot.bank_service.controller;
 
 import com.springboot.bank_service.dto.AccountDTO;
+import com.springboot.bank_service.dto.KeysetPage;
 import com.springboot.bank_service.exception.AccountNotFoundException;
 import com.springboot.bank_service.exception.BankNotFoundException;
 import com.springboot.bank_service.model.Bank;
 import com.springboot.bank_service.service.BankService;
 import com.springboot.bank_service.util.Constants;
-import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -19,28 +22,45 @@ import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.linkTo;
 import static org.springframework.hateoas.server.mvc.WebMvcLinkBuilder.methodOn;
 
 @RestController
-@RequiredArgsConstructor
 @RequestMapping(Constants.BANK_BASE_URL)
 public class BankController {
 
     private BankService bankService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
     public static final String ACCOUNTS = "accounts";
     public static final String ALL_BANK = "allBank";
 
     @Autowired
-    public BankController(BankService bankService) {
+    public BankController(BankService bankService,
+                          @Value("${bank.page.default-size:50}") int defaultPageSize,
+                          @Value("${bank.page.max-size:500}") int maxPageSize) {
         this.bankService = bankService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
+    /**
+     * Lists banks in id order, one page at a time. Pages are addressed by the last id seen
+     * ({@code after}) rather than an offset, and the {@code next} link carries the cursor for
+     * the following page; it is absent on the last one.
+     */
     @GetMapping
-    public ResponseEntity<List<EntityModel<Bank>>> getAllBank(){
-        List<EntityModel<Bank>> bankList=bankService.findAll().stream()
+    public ResponseEntity<CollectionModel<EntityModel<Bank>>> getAllBank(@RequestParam(required = false) Long after,
+                                                                         @RequestParam(required = false) Integer size){
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        KeysetPage<Bank> page = bankService.findPage(after, pageSize);
+        List<EntityModel<Bank>> bankList=page.getContent().stream()
                 .map(bank ->EntityModel.of(bank,
                         linkTo(methodOn(BankController.class).getBankById(bank.getId())).withSelfRel(),
-                        linkTo(methodOn(BankController.class).getAccountsForBank(bank.getId())).withRel(ACCOUNTS),
-                        linkTo(methodOn(BankController.class).getAllBank()).withRel(ALL_BANK)))
+                        linkTo(methodOn(BankController.class).getAccountsForBank(bank.getId())).withRel(ACCOUNTS)))
                 .toList();
-        return ResponseEntity.ok(bankList);
+        CollectionModel<EntityModel<Bank>> banks = CollectionModel.of(bankList,
+                linkTo(methodOn(BankController.class).getAllBank(after, size)).withSelfRel());
+        if (page.getNextAfter() != null) {
+            banks.add(linkTo(methodOn(BankController.class).getAllBank(page.getNextAfter(), pageSize)).withRel(IanaLinkRelations.NEXT));
+        }
+        return ResponseEntity.ok(banks);
     }
 
     @GetMapping(Constants.BANK_ID)
@@ -50,7 +70,7 @@ public class BankController {
         EntityModel<Bank> bankModel = EntityModel.of(bank,
                 linkTo(methodOn(BankController.class).getBankById(id)).withSelfRel(),
                 linkTo(methodOn(BankController.class).getAccountsForBank(bank.getId())).withRel(ACCOUNTS),
-                linkTo(methodOn(BankController.class).getAllBank()).withRel(ALL_BANK));
+                linkTo(methodOn(BankController.class).getAllBank(null, null)).withRel(ALL_BANK));
         return ResponseEntity.ok(bankModel);
     }
 
@@ -60,7 +80,7 @@ public class BankController {
 
         EntityModel<Bank> bankModel=EntityModel.of(createBank,
                 linkTo(methodOn(BankController.class).getBankById(createBank.getId())).withSelfRel(),
-                linkTo(methodOn(BankController.class).getAllBank()).withRel(ALL_BANK));
+                linkTo(methodOn(BankController.class).getAllBank(null, null)).withRel(ALL_BANK));
         return ResponseEntity.status(HttpStatus.CREATED).body(bankModel);
     }
 
@@ -70,7 +90,7 @@ public class BankController {
                 .orElseThrow(() -> new BankNotFoundException(id));
         EntityModel<Bank> bankModel = EntityModel.of(updatedBank,
                 linkTo(methodOn(BankController.class).getBankById(id)).withSelfRel(),
-                linkTo(methodOn(BankController.class).getAllBank()).withRel(ALL_BANK));
+                linkTo(methodOn(BankController.class).getAllBank(null, null)).withRel(ALL_BANK));
         return ResponseEntity.ok(bankModel);
     }
 
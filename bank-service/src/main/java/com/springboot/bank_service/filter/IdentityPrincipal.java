@@ -0,0 +1,17 @@
+package com.springboot.bank_service.filter;
+
+import java.security.Principal;
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * The caller as verified by the gateway, available for the current request through
+ * {@code HttpServletRequest.getUserPrincipal()} or a {@code Principal} controller argument.
+ */
+public record IdentityPrincipal(String name, Set<String> roles, Instant expiresAt) implements Principal {
+
+    @Override
+    public String getName() {
+        return name;
+    }
+}
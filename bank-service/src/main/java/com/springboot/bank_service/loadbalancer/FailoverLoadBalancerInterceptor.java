@@ -0,0 +1,103 @@
+package com.springboot.bank_service.loadbalancer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequestAdapter;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerRequestFactory;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.util.LinkedMultiValueMap;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resolves the host of each request as a service id through the {@link LoadBalancerClient} and
+ * sends it to the chosen instance. When the connection cannot be established the request was
+ * never seen by the instance, so it is safe to resend, whatever its method: it is tried again
+ * on another instance, up to {@code maxAttempts} instances in total. Failures after connecting
+ * are not retried.
+ */
+@Slf4j
+public class FailoverLoadBalancerInterceptor implements ClientHttpRequestInterceptor {
+
+    private static final String DEFAULT_HINT = "default";
+
+    private final LoadBalancerClient loadBalancer;
+    private final LoadBalancerRequestFactory requestFactory;
+    private final int maxAttempts;
+    private final Counter failovers;
+
+    public FailoverLoadBalancerInterceptor(LoadBalancerClient loadBalancer, int maxAttempts, MeterRegistry meterRegistry) {
+        this.loadBalancer = loadBalancer;
+        this.requestFactory = new LoadBalancerRequestFactory(loadBalancer);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.failovers = Counter.builder("bank.loadbalancer.failovers")
+                .description("Requests resent to another instance after a connect failure")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        String serviceId = uri.getHost();
+        List<ServiceInstance> failed = new ArrayList<>();
+        IOException lastFailure = null;
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            Map<String, Object> attributes = new HashMap<>();
+            attributes.put(LatencyAwareLoadBalancer.EXCLUDED_INSTANCES_ATTR, List.copyOf(failed));
+            RequestDataContext context = new RequestDataContext(new RequestData(request.getMethod(), uri,
+                    request.getHeaders(), new LinkedMultiValueMap<>(), attributes), DEFAULT_HINT);
+            ServiceInstance instance = loadBalancer.choose(serviceId, new DefaultRequest<>(context));
+            if (instance == null) {
+                if (lastFailure != null) {
+                    throw lastFailure;
+                }
+                throw new IllegalStateException("No instances available for " + serviceId);
+            }
+            try {
+                return loadBalancer.execute(serviceId, instance,
+                        new LoadBalancerRequestAdapter<>(requestFactory.createRequest(request, body, execution), context));
+            } catch (IOException e) {
+                if (!isConnectFailure(e)) {
+                    throw e;
+                }
+                lastFailure = e;
+                failed.add(instance);
+                if (attempt + 1 < maxAttempts) {
+                    failovers.increment();
+                    log.warn("Could not connect to {} instance {}:{}, trying another instance",
+                            serviceId, instance.getHost(), instance.getPort());
+                }
+            }
+        }
+        throw lastFailure;
+    }
+
+    /**
+     * Failures that happen before the request is written: refused, unreachable or timed-out
+     * connects.
+     */
+    static boolean isConnectFailure(IOException e) {
+        return e instanceof ConnectException
+                || e instanceof ConnectTimeoutException
+                || e instanceof NoRouteToHostException
+                || e instanceof UnknownHostException;
+    }
+}
@@ -0,0 +1,66 @@
+package com.springboot.bank_service.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outstanding requests and peak-EWMA latency for one instance. A sample above the current
+ * average replaces it outright so a stalling instance is avoided immediately; faster samples
+ * pull the average down with a time-based decay. The average also decays while no samples
+ * arrive, so an instance that was avoided is eventually probed again.
+ * <p>
+ * Same as the api-gateway's {@code InstanceStats}; the services share no module to hold it.
+ */
+class InstanceStats {
+
+    private final long firstSeenNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong ewmaBits = new AtomicLong(Double.doubleToLongBits(0));
+    private final AtomicLong lastSampleNanos;
+
+    InstanceStats(long firstSeenNanos) {
+        this.firstSeenNanos = firstSeenNanos;
+        this.lastSampleNanos = new AtomicLong(firstSeenNanos);
+    }
+
+    long firstSeenNanos() {
+        return firstSeenNanos;
+    }
+
+    int inFlight() {
+        return inFlight.get();
+    }
+
+    double latency(long now, long decayNanos) {
+        double ewma = Double.longBitsToDouble(ewmaBits.get());
+        if (ewma == 0 || decayNanos <= 0) {
+            return ewma;
+        }
+        long idle = Math.max(0, now - lastSampleNanos.get());
+        return ewma * Math.exp(-(double) idle / decayNanos);
+    }
+
+    void started() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Ends a request that was cancelled before it completed, without a latency sample.
+     */
+    void abandoned() {
+        inFlight.updateAndGet(current -> Math.max(0, current - 1));
+    }
+
+    void completed(long latencyNanos, long now, long decayNanos) {
+        inFlight.updateAndGet(current -> Math.max(0, current - 1));
+        long elapsedSinceLast = Math.max(0, now - lastSampleNanos.getAndSet(now));
+        double weight = decayNanos > 0 ? Math.exp(-(double) elapsedSinceLast / decayNanos) : 0;
+        ewmaBits.updateAndGet(bits -> {
+            double current = Double.longBitsToDouble(bits);
+            double next = current == 0 || latencyNanos > current
+                    ? latencyNanos
+                    : current * weight + latencyNanos * (1 - weight);
+            return Double.doubleToLongBits(next);
+        });
+    }
+}
@@ -0,0 +1,207 @@
+package com.springboot.bank_service.loadbalancer;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequestContext;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Picks two random instances and sends the request to the one with the lower expected cost:
+ * peak-EWMA latency times outstanding requests. Newly seen instances are weighted down for the
+ * slow-start window so a cold JVM is not handed its full share at once. Latency and in-flight
+ * counts come from the lifecycle callbacks of the blocking load balancer client, which
+ * {@link FailoverLoadBalancerInterceptor} drives. A request can steer away from instances that
+ * already failed it through {@link #EXCLUDED_INSTANCES_ATTR}.
+ * <p>
+ * Adapted from the api-gateway's balancer, which the services share no module with: selection is
+ * the same, only the lifecycle types and the exclusion of several instances differ.
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<DefaultRequestContext, Object, ServiceInstance> {
+
+    /**
+     * Request attribute holding a collection of {@link ServiceInstance}s that should not be
+     * chosen if any other instance is available.
+     */
+    public static final String EXCLUDED_INSTANCES_ATTR = LatencyAwareLoadBalancer.class.getName() + ".excludedInstances";
+
+    private static final double MIN_SLOW_START_WEIGHT = 0.1;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider;
+    private final String serviceId;
+    private final long decayNanos;
+    private final long slowStartNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier nanoClock;
+    private final Cache<String, InstanceStats> stats;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                                    String serviceId, Duration decay, Duration slowStart, Duration failurePenalty) {
+        this(serviceInstanceListSupplierProvider, serviceId, decay, slowStart, failurePenalty, System::nanoTime);
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> serviceInstanceListSupplierProvider,
+                             String serviceId, Duration decay, Duration slowStart, Duration failurePenalty,
+                             LongSupplier nanoClock) {
+        this.serviceInstanceListSupplierProvider = serviceInstanceListSupplierProvider;
+        this.serviceId = serviceId;
+        this.decayNanos = decay.toNanos();
+        this.slowStartNanos = slowStart.toNanos();
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.nanoClock = nanoClock;
+        this.stats = Caffeine.newBuilder()
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = serviceInstanceListSupplierProvider
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        Set<String> excluded = excludedInstances(request);
+        return supplier.get(request).next().map(instances -> choose(without(instances, excluded)));
+    }
+
+    private static Set<String> excludedInstances(Request request) {
+        if (request.getContext() instanceof RequestDataContext context && context.getClientRequest() != null
+                && context.getClientRequest().getAttributes() != null
+                && context.getClientRequest().getAttributes().get(EXCLUDED_INSTANCES_ATTR) instanceof Collection<?> instances) {
+            return instances.stream()
+                    .filter(ServiceInstance.class::isInstance)
+                    .map(instance -> key((ServiceInstance) instance))
+                    .collect(Collectors.toSet());
+        }
+        return Set.of();
+    }
+
+    private static List<ServiceInstance> without(List<ServiceInstance> instances, Set<String> excluded) {
+        if (excluded.isEmpty() || instances.size() < 2) {
+            return instances;
+        }
+        List<ServiceInstance> remaining = instances.stream()
+                .filter(instance -> !excluded.contains(key(instance)))
+                .toList();
+        return remaining.isEmpty() ? instances : remaining;
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        InstanceStats statsA = stats(a);
+        InstanceStats statsB = stats(b);
+
+        long now = nanoClock.getAsLong();
+        double latencyA = statsA.latency(now, decayNanos);
+        double latencyB = statsB.latency(now, decayNanos);
+        // An instance without samples yet is assumed to be as fast as the other one.
+        double fallback = latencyA > 0 ? latencyA : (latencyB > 0 ? latencyB : 1);
+        double costA = cost(statsA, latencyA > 0 ? latencyA : fallback, now);
+        double costB = cost(statsB, latencyB > 0 ? latencyB : fallback, now);
+        return new DefaultResponse(costA <= costB ? a : b);
+    }
+
+    private double cost(InstanceStats instance, double latency, long now) {
+        return latency * (instance.inFlight() + 1) / slowStartWeight(instance, now);
+    }
+
+    private double slowStartWeight(InstanceStats instance, long now) {
+        if (slowStartNanos <= 0) {
+            return 1;
+        }
+        double age = (double) (now - instance.firstSeenNanos()) / slowStartNanos;
+        return Math.max(MIN_SLOW_START_WEIGHT, Math.min(1, age));
+    }
+
+    private InstanceStats stats(ServiceInstance instance) {
+        return stats.get(key(instance), k -> new InstanceStats(nanoClock.getAsLong()));
+    }
+
+    private static String key(ServiceInstance instance) {
+        return instance.getInstanceId() != null ? instance.getInstanceId() : instance.getHost() + ':' + instance.getPort();
+    }
+
+    /**
+     * The blocking client asks for lifecycles of {@link DefaultRequestContext} and any response
+     * type, so support is decided on the server type alone.
+     */
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return DefaultRequestContext.class.isAssignableFrom(requestContextClass)
+                && ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<DefaultRequestContext> request) {
+        // Nothing to track until an instance has been chosen.
+    }
+
+    @Override
+    public void onStartRequest(Request<DefaultRequestContext> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() != null) {
+            request.getContext().setRequestStartTime(nanoClock.getAsLong());
+        }
+        stats(lbResponse.getServer()).started();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, DefaultRequestContext> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        InstanceStats instance = stats(lbResponse.getServer());
+        if (completionContext.status() == CompletionContext.Status.DISCARD) {
+            instance.abandoned();
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        long elapsed = 0;
+        Request<DefaultRequestContext> request = completionContext.getLoadBalancerRequest();
+        if (request != null && request.getContext() != null && request.getContext().getRequestStartTime() != 0) {
+            elapsed = now - request.getContext().getRequestStartTime();
+        }
+        if (completionContext.status() == CompletionContext.Status.FAILED) {
+            elapsed = Math.max(elapsed, failurePenaltyNanos);
+        }
+        instance.completed(elapsed, now, decayNanos);
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+}
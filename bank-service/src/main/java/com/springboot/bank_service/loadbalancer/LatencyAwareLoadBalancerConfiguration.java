@@ -0,0 +1,29 @@
+package com.springboot.bank_service.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Per-service load balancer configuration. Deliberately not a {@code @Configuration} so that it
+ * is only loaded into each service's load balancer context, not the application context. That
+ * context has no Boot conversion service, so durations are taken as strings and parsed here.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public LatencyAwareLoadBalancer latencyAwareLoadBalancer(Environment environment,
+                                                             LoadBalancerClientFactory loadBalancerClientFactory,
+                                                             @Value("${bank.loadbalancer.decay:10s}") String decay,
+                                                             @Value("${bank.loadbalancer.slow-start:30s}") String slowStart,
+                                                             @Value("${bank.loadbalancer.failure-penalty:1s}") String failurePenalty) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                loadBalancerClientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, DurationStyle.detectAndParse(decay), DurationStyle.detectAndParse(slowStart),
+                DurationStyle.detectAndParse(failurePenalty));
+    }
+}
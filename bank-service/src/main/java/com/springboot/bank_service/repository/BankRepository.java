@@ -1,10 +1,18 @@
 package com.springboot.bank_service.repository;
 
 import com.springboot.bank_service.model.Bank;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface BankRepository extends JpaRepository<Bank,Long> {
 
+    /**
+     * Range scan on the primary key: no offset to skip and no sort step, so the cost of a page
+     * does not depend on how far into the table it starts.
+     */
+    List<Bank> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
 }
@@ -0,0 +1,82 @@
+package com.springboot.bank_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.springboot.bank_service.model.Bank;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Bounded near-cache of banks by id, so the existence check in front of every account operation
+ * does not go to the database each time. Missing ids are cached too, for their own
+ * {@code negative-ttl}, so that probing an unknown bank is as cheap as a known one. This
+ * instance's writes update the cache directly; the TTLs, 30 seconds each by default, bound how
+ * long a write or delete made through another instance can go unseen. Callers get their own copy of a
+ * cached bank, so changing it does not change what the next caller sees. Hit rate is published
+ * as {@code cache.gets{cache=banks}}.
+ */
+@Component
+public class BankCache {
+
+    private static final String CACHE_NAME = "banks";
+
+    private final Cache<Long, Optional<Bank>> cache;
+
+    @Autowired
+    public BankCache(@Value("${bank.cache.max-size:10000}") long maxSize,
+                     @Value("${bank.cache.ttl:30s}") Duration ttl,
+                     @Value("${bank.cache.negative-ttl:30s}") Duration negativeTtl,
+                     MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(expiry(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public Optional<Bank> find(Long id, Function<Long, Optional<Bank>> loader) {
+        return cache.get(id, loader).map(BankCache::copy);
+    }
+
+    public void put(Bank bank) {
+        if (bank.getId() != null) {
+            cache.put(bank.getId(), Optional.of(copy(bank)));
+        }
+    }
+
+    public void evict(Long id) {
+        cache.invalidate(id);
+    }
+
+    private static Bank copy(Bank bank) {
+        return new Bank(bank.getId(), bank.getName(), bank.getLocation(), bank.getBranchCode());
+    }
+
+    private static Expiry<Long, Optional<Bank>> expiry(long ttlNanos, long negativeTtlNanos) {
+        return new Expiry<>() {
+            @Override
+            public long expireAfterCreate(Long id, Optional<Bank> bank, long currentTime) {
+                return bank.isPresent() ? ttlNanos : negativeTtlNanos;
+            }
+
+            @Override
+            public long expireAfterUpdate(Long id, Optional<Bank> bank, long currentTime, long currentDuration) {
+                return expireAfterCreate(id, bank, currentTime);
+            }
+
+            @Override
+            public long expireAfterRead(Long id, Optional<Bank> bank, long currentTime, long currentDuration) {
+                return currentDuration;
+            }
+        };
+    }
+}
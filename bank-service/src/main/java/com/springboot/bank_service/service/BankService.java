@@ -1,13 +1,14 @@
 package com.springboot.bank_service.service;
 
 import com.springboot.bank_service.dto.AccountDTO;
+import com.springboot.bank_service.dto.KeysetPage;
 import com.springboot.bank_service.model.Bank;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface BankService {
-    public List<Bank> findAll();
+    public KeysetPage<Bank> findPage(Long afterId, int size);
     public Optional<Bank> findById(Long id);
     public Bank save(Bank bank);
     public boolean delete(Long id);
@@ -1,11 +1,13 @@
 package com.springboot.bank_service.service;
 
 import com.springboot.bank_service.dto.AccountDTO;
+import com.springboot.bank_service.dto.KeysetPage;
 import com.springboot.bank_service.model.Bank;
 import com.springboot.bank_service.repository.BankRepository;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
@@ -21,30 +23,40 @@ public class BankServiceImpl implements BankService{
 
     private BankRepository bankRepository;
     private RestTemplate restTemplate;
+    private BankCache bankCache;
     private String accountServiceUrl;
     public static final String BANK_NOT_FOUND_MESSAGE = "Bank not found";
     public static final String BANK="Bank ";
 
-    public BankServiceImpl(BankRepository bankRepository, RestTemplate restTemplate,
+    public BankServiceImpl(BankRepository bankRepository, RestTemplate restTemplate, BankCache bankCache,
                            @Value("${account.service.url}") String accountServiceUrl) {
         this.bankRepository = bankRepository;
         this.restTemplate = restTemplate;
+        this.bankCache = bankCache;
         this.accountServiceUrl = accountServiceUrl;
     }
 
     @Override
-    public List<Bank> findAll() {
-         return bankRepository.findAll();
+    public KeysetPage<Bank> findPage(Long afterId, int size) {
+        // One row past the page tells us whether a next page exists without a count query.
+        List<Bank> banks = bankRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(size + 1));
+        if (banks.size() <= size) {
+            return new KeysetPage<>(banks, null);
+        }
+        List<Bank> page = banks.subList(0, size);
+        return new KeysetPage<>(page, page.get(size - 1).getId());
     }
 
     @Override
     public Optional<Bank> findById(Long id) {
-        return bankRepository.findById(id);
+        return bankCache.find(id, bankRepository::findById);
     }
 
     @Override
     public Bank save(Bank bank) {
-        return bankRepository.save(bank);
+        Bank saved = bankRepository.save(bank);
+        bankCache.put(saved);
+        return saved;
     }
 
     @Override
@@ -53,6 +65,7 @@ public class BankServiceImpl implements BankService{
                 .map(bank -> {
                     restTemplate.delete(accountServiceUrl+"/accounts/bank/"+id);
                     bankRepository.delete(bank);
+                    bankCache.evict(id);
                     return true;
                 })
                 .orElse(false);
@@ -65,13 +78,15 @@ public class BankServiceImpl implements BankService{
                     bank.setName(bankDetails.getName());
                     bank.setLocation(bankDetails.getLocation());
                     bank.setBranchCode(bankDetails.getBranchCode());
-                    return bankRepository.save(bank);
+                    Bank saved = bankRepository.save(bank);
+                    bankCache.put(saved);
+                    return saved;
                 });
     }
 
     @Override
     public List<AccountDTO> getAccountsForBank(Long bankId) {
-       Bank bank = bankRepository.findById(bankId)
+       Bank bank = findById(bankId)
                 .orElseThrow(() -> new RuntimeException(BANK_NOT_FOUND_MESSAGE));
 
        log.info(BANK+bank);
@@ -87,7 +102,7 @@ public class BankServiceImpl implements BankService{
 
     @Override
     public AccountDTO createAccountForBank(Long bankId, AccountDTO accountDTO) {
-         Bank bank = bankRepository.findById(bankId)
+         Bank bank = findById(bankId)
                 .orElseThrow(()-> new RuntimeException(BANK_NOT_FOUND_MESSAGE));
         log.info(BANK+bank);
         accountDTO.setBankId(bankId);
@@ -101,7 +116,7 @@ public class BankServiceImpl implements BankService{
 
     @Override
     public AccountDTO updateAccountForBank(Long accountId, Long bankId, AccountDTO accountDTO) {
-       Bank bank = bankRepository.findById(bankId)
+       Bank bank = findById(bankId)
                 .orElseThrow(() -> new RuntimeException(BANK_NOT_FOUND_MESSAGE));
         log.info(BANK+bank);
         accountDTO.setBankId(bankId);
@@ -118,7 +133,7 @@ public class BankServiceImpl implements BankService{
 
     @Override
     public void deleteAccountforBank(Long accountId, Long bankId) {
-        Bank bank = bankRepository.findById(bankId)
+        Bank bank = findById(bankId)
                 .orElseThrow(() -> new RuntimeException(BANK_NOT_FOUND_MESSAGE));
         log.info(BANK+bank);
 
@@ -8,4 +8,5 @@ public class Constants {
     public static final String BANK_ID="/{id}";
     public static final String BANK_ID_ACCOUNTS="/{bankId}/accounts";
     public static final String BANK_ID_ACCOUNTS_ACCOUNT_ID="/{bankId}/accounts/{accountId}";
+    public static final String IDENTITY_HEADER="X-Identity";
 }
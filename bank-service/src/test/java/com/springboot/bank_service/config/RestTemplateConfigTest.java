@@ -0,0 +1,112 @@
+package com.springboot.bank_service.config;
+
+import com.springboot.bank_service.loadbalancer.FailoverLoadBalancerInterceptor;
+import com.springboot.bank_service.util.Constants;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RestTemplateConfigTest {
+
+    private final RestTemplateConfig config = new RestTemplateConfig();
+
+    private HttpServer server;
+    private Set<Integer> clientPorts;
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+    private RestTemplate restTemplate;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        clientPorts = ConcurrentHashMap.newKeySet();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            clientPorts.add(exchange.getRemoteAddress().getPort());
+            String identity = exchange.getRequestHeaders().getFirst(Constants.IDENTITY_HEADER);
+            byte[] body = String.valueOf(identity).getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+
+        meterRegistry = new SimpleMeterRegistry();
+        PoolingHttpClientConnectionManager connectionManager = config.accountServiceConnectionManager(
+                10, 5, Duration.ofSeconds(1), Duration.ofMillis(200), meterRegistry);
+        httpClient = config.accountServiceHttpClient(connectionManager, Duration.ofSeconds(1),
+                Duration.ofMillis(200), Duration.ofSeconds(30));
+        restTemplate = config.restTemplate(new RestTemplateBuilder(), httpClient,
+                new StaticListableBeanFactory().getBeanProvider(FailoverLoadBalancerInterceptor.class));
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        RequestContextHolder.resetRequestAttributes();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+
+    @Test
+    void sequentialCalls_reuseOneConnection() {
+        for (int i = 0; i < 20; i++) {
+            restTemplate.getForObject(url("/accounts/bank/1"), String.class);
+        }
+
+        assertEquals(1, clientPorts.size());
+        assertEquals(1.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "account-service").tag("state", "available").gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("state", "leased").gauge().value());
+        assertEquals(0.0, meterRegistry.get("httpcomponents.httpclient.pool.total.pending").gauge().value());
+        assertEquals(10.0, meterRegistry.get("httpcomponents.httpclient.pool.total.max").gauge().value());
+    }
+
+    @Test
+    void slowResponse_timesOut() {
+        assertThrows(ResourceAccessException.class, () -> restTemplate.getForObject(url("/slow"), String.class));
+    }
+
+    @Test
+    void identityOfCurrentRequest_isForwarded() {
+        MockHttpServletRequest incoming = new MockHttpServletRequest();
+        incoming.addHeader(Constants.IDENTITY_HEADER, "signed-identity");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(incoming));
+
+        assertEquals("signed-identity", restTemplate.getForObject(url("/accounts/bank/1"), String.class));
+    }
+}
@@ -1,16 +1,18 @@
 package com.springboot.bank_service.controller;
 
 import com.springboot.bank_service.dto.AccountDTO;
+import com.springboot.bank_service.dto.KeysetPage;
 import com.springboot.bank_service.exception.AccountNotFoundException;
 import com.springboot.bank_service.exception.BankNotFoundException;
 import com.springboot.bank_service.model.Bank;
 import com.springboot.bank_service.service.BankService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.hateoas.CollectionModel;
 import org.springframework.hateoas.EntityModel;
+import org.springframework.hateoas.IanaLinkRelations;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -27,7 +29,6 @@ class BankControllerTest {
     @Mock
     private BankService bankService;
 
-    @InjectMocks
     private BankController bankController;
 
     private Bank bank;
@@ -35,19 +36,42 @@ class BankControllerTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        bankController = new BankController(bankService, 2, 3);
         bank = new Bank(1L, "Test Bank", "Test Location", "1234");
     }
 
     @Test
-    void getAllBank_returnsListOfBanks() {
-        when(bankService.findAll()).thenReturn(List.of(bank));
+    void getAllBank_returnsFirstPageWithNextLink() {
+        when(bankService.findPage(null, 2)).thenReturn(new KeysetPage<>(List.of(bank), 1L));
 
-        ResponseEntity<List<EntityModel<Bank>>> response = bankController.getAllBank();
+        ResponseEntity<CollectionModel<EntityModel<Bank>>> response = bankController.getAllBank(null, null);
 
         assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
         assertThat(response.getBody()).isNotNull();
-        assertThat(response.getBody().get(0).getContent()).isEqualTo(bank);
-        verify(bankService, times(1)).findAll();
+        assertThat(response.getBody().getContent().iterator().next().getContent()).isEqualTo(bank);
+        assertThat(response.getBody().getRequiredLink(IanaLinkRelations.NEXT).getHref()).endsWith("/bank?after=1&size=2");
+        verify(bankService, times(1)).findPage(null, 2);
+    }
+
+    @Test
+    void getAllBank_lastPageHasNoNextLink() {
+        when(bankService.findPage(1L, 2)).thenReturn(new KeysetPage<>(List.of(bank), null));
+
+        ResponseEntity<CollectionModel<EntityModel<Bank>>> response = bankController.getAllBank(1L, 2);
+
+        assertThat(response.getBody().getLink(IanaLinkRelations.NEXT)).isEqualTo(Optional.empty());
+        assertThat(response.getBody().getRequiredLink(IanaLinkRelations.SELF).getHref()).endsWith("/bank?after=1&size=2");
+    }
+
+    @Test
+    void getAllBank_clampsPageSize() {
+        when(bankService.findPage(any(), anyInt())).thenReturn(new KeysetPage<>(List.of(), null));
+
+        bankController.getAllBank(null, 10_000);
+        bankController.getAllBank(null, 0);
+
+        verify(bankService).findPage(null, 3);
+        verify(bankService).findPage(null, 1);
     }
 
 
@@ -0,0 +1,112 @@
+package com.springboot.bank_service.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.bank_service.util.Constants;
+import jakarta.servlet.http.HttpServletRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdentityFilterTest {
+
+    private static final String SECRET = "3b9Yl0qEXx6m2Pq1cS4nVdJ8wHkR7tZuA5oGfLyTiBs=";
+
+    private IdentityFilter identityFilter;
+    private MockFilterChain filterChain;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        identityFilter = new IdentityFilter(SECRET, new ObjectMapper());
+        filterChain = new MockFilterChain();
+        response = new MockHttpServletResponse();
+    }
+
+    private static String identity(String payload, String secret) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(Base64.getDecoder().decode(secret), "HmacSHA256"));
+        byte[] payloadBytes = payload.getBytes(StandardCharsets.UTF_8);
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        return encoder.encodeToString(payloadBytes) + "." + encoder.encodeToString(mac.doFinal(payloadBytes));
+    }
+
+    private MockHttpServletRequest request(String identity) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/bank/1");
+        if (identity != null) {
+            request.addHeader(Constants.IDENTITY_HEADER, identity);
+        }
+        return request;
+    }
+
+    @Test
+    void validIdentity_becomesRequestPrincipal() throws Exception {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+
+        identityFilter.doFilter(request(identity("user\ncustomer,auditor\n" + expiry, SECRET)), response, filterChain);
+
+        IdentityPrincipal principal = (IdentityPrincipal) ((HttpServletRequest) filterChain.getRequest())
+                .getUserPrincipal();
+        assertEquals("user", principal.getName());
+        assertEquals(Set.of("customer", "auditor"), principal.roles());
+        assertEquals(Instant.ofEpochSecond(expiry), principal.expiresAt());
+        assertTrue(((HttpServletRequest) filterChain.getRequest()).isUserInRole("auditor"));
+    }
+
+    @Test
+    void identityWithoutRoles_hasEmptyRoles() throws Exception {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+
+        identityFilter.doFilter(request(identity("user\n\n" + expiry, SECRET)), response, filterChain);
+
+        IdentityPrincipal principal = (IdentityPrincipal) ((HttpServletRequest) filterChain.getRequest())
+                .getUserPrincipal();
+        assertTrue(principal.roles().isEmpty());
+    }
+
+    @Test
+    void identitySignedWithAnotherKey_isRejected() throws Exception {
+        long expiry = Instant.now().plusSeconds(60).getEpochSecond();
+        String forged = identity("admin\nadmin\n" + expiry, "Mj6zTfwErnRlWfKdhsj8PwpQN1Uf/ujQsKN5ZyAqN4M=");
+
+        identityFilter.doFilter(request(forged), response, filterChain);
+
+        assertEquals(401, response.getStatus());
+        assertTrue(response.getContentAsString().contains("\"statusCode\":401"));
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void expiredIdentity_isRejected() throws Exception {
+        long expiry = Instant.now().minusSeconds(1).getEpochSecond();
+
+        identityFilter.doFilter(request(identity("user\n\n" + expiry, SECRET)), response, filterChain);
+
+        assertEquals(401, response.getStatus());
+        assertNull(filterChain.getRequest());
+    }
+
+    @Test
+    void malformedIdentity_isRejected() throws Exception {
+        identityFilter.doFilter(request("not an identity"), response, filterChain);
+
+        assertEquals(401, response.getStatus());
+    }
+
+    @Test
+    void requestWithoutIdentity_passesUnauthenticated() throws Exception {
+        identityFilter.doFilter(request(null), response, filterChain);
+
+        assertNull(((HttpServletRequest) filterChain.getRequest()).getUserPrincipal());
+    }
+}
@@ -0,0 +1,234 @@
+package com.springboot.bank_service.loadbalancer;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.Timeout;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import com.springboot.bank_service.config.LoadBalancerConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.reactive.ReactiveLoadBalancer;
+import org.springframework.cloud.loadbalancer.blocking.client.BlockingLoadBalancerClient;
+import org.springframework.cloud.loadbalancer.config.BlockingLoadBalancerClientAutoConfiguration;
+import org.springframework.cloud.loadbalancer.config.LoadBalancerAutoConfiguration;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs stub account-service instances in-process and calls them through the interceptor, the
+ * blocking load balancer client and {@link LatencyAwareLoadBalancer}, as bank-service does.
+ */
+class FailoverLoadBalancerInterceptorTest {
+
+    private static final String SERVICE_ID = "account-service";
+
+    static {
+        // Without it the stub servers' small writes wait on delayed ACKs, adding ~40ms to every call.
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final List<HttpServer> servers = new ArrayList<>();
+    private final Map<String, AtomicInteger> hits = new ConcurrentHashMap<>();
+    private final List<ServiceInstance> instances = new ArrayList<>();
+    private SimpleMeterRegistry meterRegistry;
+    private CloseableHttpClient httpClient;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = HttpClients.custom()
+                .setConnectionManager(PoolingHttpClientConnectionManagerBuilder.create()
+                        .setDefaultConnectionConfig(ConnectionConfig.custom()
+                                .setConnectTimeout(Timeout.ofMilliseconds(500))
+                                .setSocketTimeout(Timeout.ofMilliseconds(300))
+                                .build())
+                        .build())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        servers.forEach(server -> server.stop(0));
+    }
+
+    private void stubInstance(String name, Duration latency) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/accounts", exchange -> {
+            hits.computeIfAbsent(name, k -> new AtomicInteger()).incrementAndGet();
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = name.getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        servers.add(server);
+        instances.add(new DefaultServiceInstance(name, SERVICE_ID, "localhost", server.getAddress().getPort(), false));
+    }
+
+    private void deadInstance(String name) throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        instances.add(new DefaultServiceInstance(name, SERVICE_ID, "localhost", port, false));
+    }
+
+    private ServiceInstanceListSupplier supplier() {
+        return new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICE_ID;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(List.copyOf(instances));
+            }
+        };
+    }
+
+    private RestTemplate restTemplate(int maxAttempts) {
+        ObjectProvider<ServiceInstanceListSupplier> provider = new StaticListableBeanFactory(Map.of(SERVICE_ID, supplier()))
+                .getBeanProvider(ServiceInstanceListSupplier.class);
+        LatencyAwareLoadBalancer loadBalancer = new LatencyAwareLoadBalancer(provider, SERVICE_ID,
+                Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(1));
+        return restTemplate(new BlockingLoadBalancerClient(new SingleServiceFactory(loadBalancer)), maxAttempts);
+    }
+
+    private RestTemplate restTemplate(LoadBalancerClient loadBalancerClient, int maxAttempts) {
+        RestTemplate restTemplate = new RestTemplate(new HttpComponentsClientHttpRequestFactory(httpClient));
+        restTemplate.getInterceptors().add(new FailoverLoadBalancerInterceptor(loadBalancerClient, maxAttempts, meterRegistry));
+        return restTemplate;
+    }
+
+    private String call(RestTemplate restTemplate) {
+        return restTemplate.getForObject("http://" + SERVICE_ID + "/accounts/bank/1", String.class);
+    }
+
+    private int hits(String name) {
+        AtomicInteger count = hits.get(name);
+        return count == null ? 0 : count.get();
+    }
+
+    @Test
+    void refusedConnection_failsOverToAnotherInstance() throws IOException {
+        deadInstance("account-dead");
+        stubInstance("account-1", Duration.ZERO);
+        RestTemplate restTemplate = restTemplate(2);
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals("account-1", call(restTemplate));
+        }
+
+        assertTrue(meterRegistry.get("bank.loadbalancer.failovers").counter().count() >= 1);
+    }
+
+    @Test
+    void allInstancesRefusing_failsAfterMaxAttempts() throws IOException {
+        deadInstance("account-dead-1");
+        deadInstance("account-dead-2");
+        RestTemplate restTemplate = restTemplate(2);
+
+        assertThrows(ResourceAccessException.class, () -> call(restTemplate));
+        assertEquals(1.0, meterRegistry.get("bank.loadbalancer.failovers").counter().count());
+    }
+
+    @Test
+    void readTimeout_isNotRetried() throws IOException {
+        stubInstance("account-slow-1", Duration.ofSeconds(1));
+        stubInstance("account-slow-2", Duration.ofSeconds(1));
+        RestTemplate restTemplate = restTemplate(2);
+
+        assertThrows(ResourceAccessException.class, () -> call(restTemplate));
+        assertEquals(1, hits("account-slow-1") + hits("account-slow-2"));
+    }
+
+    @Test
+    void loadBalancerClientFactory_createsLatencyAwareLoadBalancerPerService() throws IOException {
+        stubInstance("account-1", Duration.ZERO);
+
+        new ApplicationContextRunner()
+                .withConfiguration(AutoConfigurations.of(LoadBalancerAutoConfiguration.class,
+                        BlockingLoadBalancerClientAutoConfiguration.class))
+                .withUserConfiguration(LoadBalancerConfig.class)
+                .withPropertyValues("bank.loadbalancer.slow-start=0s")
+                .withBean(ServiceInstanceListSupplier.class, this::supplier)
+                .run(context -> {
+                    assertInstanceOf(LatencyAwareLoadBalancer.class,
+                            context.getBean(LoadBalancerClientFactory.class).getInstance(SERVICE_ID));
+                    assertEquals("account-1", call(restTemplate(context.getBean(LoadBalancerClient.class), 2)));
+                });
+    }
+
+    @Test
+    void noInstances_failsFast() {
+        RestTemplate restTemplate = restTemplate(2);
+
+        assertThrows(IllegalStateException.class, () -> call(restTemplate));
+    }
+
+    /**
+     * Stands in for the load balancer client factory, which would hand out one load balancer
+     * context per service.
+     */
+    private static final class SingleServiceFactory implements ReactiveLoadBalancer.Factory<ServiceInstance> {
+
+        private final LatencyAwareLoadBalancer loadBalancer;
+
+        private SingleServiceFactory(LatencyAwareLoadBalancer loadBalancer) {
+            this.loadBalancer = loadBalancer;
+        }
+
+        @Override
+        public ReactiveLoadBalancer<ServiceInstance> getInstance(String serviceId) {
+            return loadBalancer;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <X> Map<String, X> getInstances(String name, Class<X> type) {
+            return type.isInstance(loadBalancer) ? Map.of("latencyAwareLoadBalancer", (X) loadBalancer) : Map.of();
+        }
+
+        @Override
+        public <X> X getInstance(String name, Class<?> clazz, Class<?>... generics) {
+            return null;
+        }
+    }
+}
@@ -5,13 +5,17 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.springboot.bank_service.dto.AccountDTO;
+import com.springboot.bank_service.dto.KeysetPage;
 import com.springboot.bank_service.model.Bank;
 import com.springboot.bank_service.repository.BankRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.data.domain.Limit;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -22,6 +26,7 @@ import org.mockito.MockitoAnnotations;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 
+import java.time.Duration;
 import java.util.ArrayList;
 
 
@@ -33,6 +38,11 @@ class BankServiceImplTest {
     @Mock
     private RestTemplate restTemplate;
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BankCache bankCache = new BankCache(100, Duration.ofSeconds(30), Duration.ofSeconds(30), meterRegistry);
+
     @InjectMocks
     private BankServiceImpl bankServiceImpl;
 
@@ -58,16 +68,26 @@ class BankServiceImplTest {
     }
 
     @Test
-    void testFindAll() {
-        List<Bank> banks = new ArrayList<>();
-        banks.add(bank);
+    void testFindPage_readsOneRowAheadForNextCursor() {
+        Bank second = new Bank(2L, "Second Bank", "Location", "TST002");
+        Bank third = new Bank(3L, "Third Bank", "Location", "TST003");
+        when(bankRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(3))).thenReturn(List.of(bank, second, third));
 
-        when(bankRepository.findAll()).thenReturn(banks);
+        KeysetPage<Bank> page = bankServiceImpl.findPage(null, 2);
 
-        List<Bank> result = bankServiceImpl.findAll();
+        assertEquals(List.of(bank, second), page.getContent());
+        assertEquals(2L, page.getNextAfter());
+        verify(bankRepository, never()).findAll();
+    }
 
-        assertEquals(1, result.size());
-        verify(bankRepository).findAll();
+    @Test
+    void testFindPage_lastPage() {
+        when(bankRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(3))).thenReturn(new ArrayList<>(List.of(bank)));
+
+        KeysetPage<Bank> page = bankServiceImpl.findPage(1L, 2);
+
+        assertEquals(1, page.getContent().size());
+        assertNull(page.getNextAfter());
     }
 
     @Test
@@ -247,4 +267,80 @@ class BankServiceImplTest {
         verify(bankRepository).findById(1L);
         verify(restTemplate, never()).delete(anyString());
     }
+
+    @Test
+    void testAccountOperations_LookUpBankOnce() {
+        when(bankRepository.findById(1L)).thenReturn(Optional.of(bank));
+        ResponseEntity<AccountDTO> responseEntity = mock(ResponseEntity.class);
+        when(responseEntity.getBody()).thenReturn(accountDTO);
+        when(restTemplate.postForEntity(anyString(), any(), eq(AccountDTO.class))).thenReturn(responseEntity);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.PUT), any(HttpEntity.class), eq(AccountDTO.class)))
+                .thenReturn(responseEntity);
+
+        for (int i = 0; i < 10; i++) {
+            bankServiceImpl.createAccountForBank(1L, accountDTO);
+            bankServiceImpl.updateAccountForBank(1L, 1L, accountDTO);
+            bankServiceImpl.deleteAccountforBank(1L, 1L);
+        }
+
+        verify(bankRepository, times(1)).findById(1L);
+        assertEquals(29.0, meterRegistry.get("cache.gets").tag("cache", "banks").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void testMissingBank_IsCachedAsAbsent() {
+        when(bankRepository.findById(2L)).thenReturn(Optional.empty());
+
+        assertThrows(RuntimeException.class, () -> bankServiceImpl.getAccountsForBank(2L));
+        assertThrows(RuntimeException.class, () -> bankServiceImpl.deleteAccountforBank(1L, 2L));
+
+        verify(bankRepository, times(1)).findById(2L);
+        verify(restTemplate, never()).delete(anyString());
+    }
+
+    @Test
+    void testSave_ReplacesCachedMissingEntry() {
+        when(bankRepository.findById(1L)).thenReturn(Optional.empty());
+        assertTrue(bankServiceImpl.findById(1L).isEmpty());
+        when(bankRepository.save(bank)).thenReturn(bank);
+
+        bankServiceImpl.save(bank);
+
+        assertEquals(Optional.of(bank), bankServiceImpl.findById(1L));
+        verify(bankRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testUpdate_RefreshesCachedBank() {
+        bankServiceImpl.findById(1L);
+        when(bankRepository.findById(1L)).thenReturn(Optional.of(bank));
+        Bank updated = new Bank(1L, "Renamed Bank", "Test Location", "TST001");
+        when(bankRepository.save(any())).thenReturn(updated);
+
+        bankServiceImpl.update(1L, updated);
+
+        assertEquals("Renamed Bank", bankServiceImpl.findById(1L).orElseThrow().getName());
+    }
+
+    @Test
+    void testDelete_EvictsCachedBank() {
+        when(bankRepository.findById(1L)).thenReturn(Optional.of(bank));
+        bankServiceImpl.findById(1L);
+
+        bankServiceImpl.delete(1L);
+        when(bankRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(bankServiceImpl.findById(1L).isEmpty());
+    }
+
+    @Test
+    void testFindById_ReturnsCopyOfCachedBank() {
+        when(bankRepository.findById(1L)).thenReturn(Optional.of(bank));
+
+        bankServiceImpl.findById(1L).orElseThrow().setName("Mutated");
+
+        assertEquals("Test Bank", bankServiceImpl.findById(1L).orElseThrow().getName());
+        verify(bankRepository, times(1)).findById(1L);
+    }
 }
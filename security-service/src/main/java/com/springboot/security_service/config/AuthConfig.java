@@ -1,6 +1,9 @@
 package com.springboot.security_service.config;
 
 
+import com.springboot.security_service.util.PasswordCostCalibrator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -9,42 +12,101 @@ import org.springframework.security.authentication.dao.DaoAuthenticationProvider
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
-import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.argon2.Argon2PasswordEncoder;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Slf4j
 @Configuration
 @EnableWebSecurity
 public class AuthConfig {
 
-    @Bean
-    public UserDetailsService userDetailsService(){
-        return new CustomUserDetailsService();
-    }
+    private static final String BCRYPT = "bcrypt";
+    private static final String ARGON2 = "argon2";
+    private static final int MIN_BCRYPT_STRENGTH = 10;
+    private static final int MAX_BCRYPT_STRENGTH = 16;
+    private static final int MIN_ARGON2_ITERATIONS = 2;
+    private static final int MAX_ARGON2_ITERATIONS = 10;
+    private static final int ARGON2_SALT_LENGTH = 16;
+    private static final int ARGON2_HASH_LENGTH = 32;
 
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         return http.csrf().disable()
                 .authorizeHttpRequests()
-                .requestMatchers("/auth/register", "/auth/token", "/auth/validate").permitAll()
+                .requestMatchers("/auth/register", "/auth/token", "/auth/refresh", "/auth/validate", "/auth/validate/batch", "/auth/revoke", "/auth/revocations").permitAll()
                 .and()
                 .build();
     }
 
+    /**
+     * New hashes use {@code security.password.algorithm} ({@code bcrypt} or {@code argon2}) at the
+     * configured cost, which is pinned so every instance hashes alike. With
+     * {@code security.password.calibrate} on, the cost is instead measured against
+     * {@code target-hash-time} on this machine and logged, for an operator to pin it. Hashes are
+     * stored with an {@code {id}} prefix, and hashes from before the prefix existed are read as
+     * plain BCrypt. A login whose stored hash is older or cheaper than the current setting is
+     * re-encoded by {@link DaoAuthenticationProvider}.
+     */
     @Bean
-    public PasswordEncoder passwordEncoder(){
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${security.password.algorithm:bcrypt}") String algorithm,
+                                           @Value("${security.password.bcrypt.strength:10}") int bcryptStrength,
+                                           @Value("${security.password.argon2.iterations:2}") int argon2Iterations,
+                                           @Value("${security.password.argon2.memory-kib:19456}") int argon2MemoryKib,
+                                           @Value("${security.password.argon2.parallelism:1}") int argon2Parallelism,
+                                           @Value("${security.password.calibrate:false}") boolean calibrate,
+                                           @Value("${security.password.target-hash-time:250ms}") Duration targetHashTime){
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        if (ARGON2.equals(algorithm)) {
+            int iterations = argon2Iterations;
+            if (calibrate) {
+                iterations = PasswordCostCalibrator.calibrate(cost -> argon2(argon2Parallelism, argon2MemoryKib, cost),
+                        MIN_ARGON2_ITERATIONS, MAX_ARGON2_ITERATIONS, targetHashTime);
+                log.warn("Calibrated Argon2id to {} iterations for {}; pin security.password.argon2.iterations={} "
+                        + "and turn calibration off so every instance uses the same cost", iterations, targetHashTime, iterations);
+            }
+            log.info("Hashing new passwords with Argon2id, {} KiB, {} iterations", argon2MemoryKib, iterations);
+            encoders.put(ARGON2, argon2(argon2Parallelism, argon2MemoryKib, iterations));
+            encoders.put(BCRYPT, new BCryptPasswordEncoder());
+        } else if (BCRYPT.equals(algorithm)) {
+            int strength = bcryptStrength;
+            if (calibrate) {
+                strength = PasswordCostCalibrator.calibrate(BCryptPasswordEncoder::new,
+                        MIN_BCRYPT_STRENGTH, MAX_BCRYPT_STRENGTH, targetHashTime);
+                log.warn("Calibrated BCrypt to strength {} for {}; pin security.password.bcrypt.strength={} "
+                        + "and turn calibration off so every instance uses the same cost", strength, targetHashTime, strength);
+            }
+            log.info("Hashing new passwords with BCrypt, strength {}", strength);
+            encoders.put(BCRYPT, new BCryptPasswordEncoder(strength));
+            encoders.put(ARGON2, Argon2PasswordEncoder.defaultsForSpringSecurity_v5_8());
+        } else {
+            throw new IllegalStateException("Unsupported security.password.algorithm: " + algorithm);
+        }
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(algorithm, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(new BCryptPasswordEncoder());
+        return passwordEncoder;
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(){
+    public AuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder,
+                                                         CustomUserDetailsService userDetailsService){
         DaoAuthenticationProvider authenticationProvider=new DaoAuthenticationProvider();
-        authenticationProvider.setUserDetailsService(userDetailsService());
-        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsService(userDetailsService);
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
         return authenticationProvider;
     }
 
+    private static Argon2PasswordEncoder argon2(int parallelism, int memoryKib, int iterations) {
+        return new Argon2PasswordEncoder(ARGON2_SALT_LENGTH, ARGON2_HASH_LENGTH, parallelism, memoryKib, iterations);
+    }
+
     @Bean
     public AuthenticationManager authenticationManager(AuthenticationConfiguration config) throws Exception {
         return config.getAuthenticationManager();
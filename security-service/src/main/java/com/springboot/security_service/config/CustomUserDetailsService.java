@@ -1,26 +1,75 @@
 package com.springboot.security_service.config;
 
 
-import com.springboot.security_service.model.UserCredentials;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.springboot.security_service.repository.UserCredentialsRepository;
-import org.springframework.beans.factory.annotation.Autowired;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
 
-import java.util.Optional;
+import java.time.Duration;
 
+/**
+ * Loads users by name through a bounded local cache, so repeated logins and refreshes of the
+ * same user do not query {@code authdb} each time. Unknown names are not cached. Entries are
+ * dropped when a user registers and replaced when a password is re-encoded; the write expiry
+ * bounds how long a change made by another instance can go unseen. Hit rate is published as
+ * {@code cache.gets{cache=user.details}}.
+ */
 @Component
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
-    @Autowired
-    private UserCredentialsRepository repository;
+    private static final String CACHE_NAME = "user.details";
 
+    private final UserCredentialsRepository repository;
+    private final Cache<String, CustomUserDetails> cache;
+
+    public CustomUserDetailsService(UserCredentialsRepository repository,
+                                    @Value("${security.user-cache.max-size:10000}") long maxSize,
+                                    @Value("${security.user-cache.expire-after-write:5m}") Duration expireAfterWrite,
+                                    MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<UserCredentials> credentials = repository.findByName(username);
-        return credentials.map(CustomUserDetails::new).orElseThrow(() -> new UsernameNotFoundException("User not found with username : " + username));
+        CustomUserDetails userDetails = cache.get(username,
+                name -> repository.findByName(name).map(CustomUserDetails::new).orElse(null));
+        if (userDetails == null) {
+            throw new UsernameNotFoundException("User not found with username : " + username);
+        }
+        return userDetails;
+    }
+
+    /**
+     * Stores a re-encoded hash after a successful login whose stored hash used an older
+     * algorithm or a lower cost than the one configured.
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        CustomUserDetails updated = repository.findByName(user.getUsername())
+                .map(credentials -> {
+                    credentials.setPassword(newPassword);
+                    return new CustomUserDetails(repository.save(credentials));
+                })
+                .orElseThrow(() -> new UsernameNotFoundException("User not found with username : " + user.getUsername()));
+        cache.put(updated.getUsername(), updated);
+        return updated;
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
     }
 }
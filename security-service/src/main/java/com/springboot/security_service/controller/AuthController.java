@@ -2,11 +2,21 @@ package com.springboot.security_service.controller;
 
 
 import com.springboot.security_service.dto.AuthRequest;
+import com.springboot.security_service.dto.RefreshRequest;
+import com.springboot.security_service.dto.RevocationSnapshot;
+import com.springboot.security_service.dto.TokenPair;
 import com.springboot.security_service.exception.InvalidCredentialsException;
 import com.springboot.security_service.model.UserCredentials;
 import com.springboot.security_service.service.AuthService;
+import com.springboot.security_service.service.PasswordHashingExecutor;
+import com.springboot.security_service.service.TokenBatchValidator;
 import com.springboot.security_service.util.Constants;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -14,6 +24,10 @@ import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping(Constants.AUTH_BASE_URL)
 @RequiredArgsConstructor
@@ -23,6 +37,10 @@ public class AuthController {
 
     private final AuthenticationManager authenticationManager;
 
+    private final PasswordHashingExecutor hashingExecutor;
+
+    private final TokenBatchValidator batchValidator;
+
     @PostMapping(Constants.REGISTER)
     public String addNewUser(@RequestBody UserCredentials user, BindingResult bindingResult) throws InvalidCredentialsException {
         if (bindingResult.hasErrors()) {
@@ -35,8 +53,13 @@ public class AuthController {
         return authService.saveUser(user);
     }
 
+    /**
+     * Authenticates on the {@link PasswordHashingExecutor}, so the request thread is released
+     * while the password is checked. The body is the access token; the refresh token for
+     * {@code /auth/refresh} comes back in the {@value Constants#REFRESH_TOKEN_HEADER} header.
+     */
     @PostMapping(Constants.TOKEN)
-    public String getToken(@RequestBody AuthRequest authRequest) throws InvalidCredentialsException {
+    public CompletableFuture<ResponseEntity<String>> getToken(@RequestBody AuthRequest authRequest) throws InvalidCredentialsException {
         if (authRequest == null) {
             throw new InvalidCredentialsException("Authentication failed: null");
         }
@@ -46,17 +69,36 @@ public class AuthController {
         if (authRequest.getPassword() == null) {
             throw new InvalidCredentialsException("Authentication failed: null (password is missing)");
         }
-        String token = "";
-        try {
-            Authentication authenticate = authenticationManager.authenticate(
-                    new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
-            if (authenticate.isAuthenticated()) {
-                token= authService.generateToken(authRequest.getUsername());
+        return hashingExecutor.submit(() -> {
+            try {
+                Authentication authenticate = authenticationManager.authenticate(
+                        new UsernamePasswordAuthenticationToken(authRequest.getUsername(), authRequest.getPassword()));
+                if (authenticate.isAuthenticated()) {
+                    return withRefreshToken(authService.issueTokens(authRequest.getUsername()));
+                }
+            } catch (BadCredentialsException e) {
+                throw new InvalidCredentialsException("Invalid Access! User Doesn't exist or credentials are incorrect.");
             }
-        } catch (BadCredentialsException e) {
-            throw new InvalidCredentialsException("Invalid Access! User Doesn't exist or credentials are incorrect.");
+            return ResponseEntity.ok("");
+        });
+    }
+
+    /**
+     * Renews a session from its refresh token alone; the password is not checked again, so this
+     * stays on the request thread. The presented refresh token is used up and replaced.
+     */
+    @PostMapping(Constants.REFRESH)
+    public ResponseEntity<String> refreshToken(@RequestBody RefreshRequest refreshRequest) {
+        if (refreshRequest == null || refreshRequest.getRefreshToken() == null) {
+            throw new InvalidCredentialsException("Refresh failed: refresh token is missing");
         }
-        return token;
+        return withRefreshToken(authService.refresh(refreshRequest.getRefreshToken()));
+    }
+
+    private static ResponseEntity<String> withRefreshToken(TokenPair tokens) {
+        return ResponseEntity.ok()
+                .header(Constants.REFRESH_TOKEN_HEADER, tokens.getRefreshToken())
+                .body(tokens.getAccessToken());
     }
 
 
@@ -65,4 +107,30 @@ public class AuthController {
         authService.validateToken(token);
         return "Token is Valid";
     }
-}
\ No newline at end of file
+
+    /**
+     * Checks a JSON array of tokens in one request, answering with a JSON array of results in the
+     * same order. Both bodies are streamed, so results start arriving while tokens are still sent.
+     */
+    @PostMapping(value = Constants.VALIDATE_BATCH, consumes = MediaType.APPLICATION_JSON_VALUE)
+    public void validateTokens(InputStream tokens, HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        batchValidator.validate(tokens, response.getOutputStream());
+    }
+
+    @PostMapping(Constants.REVOKE)
+    public String revokeToken(@RequestHeader(HttpHeaders.AUTHORIZATION) String authorization) {
+        String token = authorization.startsWith(Constants.BEARER_PREFIX)
+                ? authorization.substring(Constants.BEARER_PREFIX.length())
+                : authorization;
+        return authService.revokeToken(token);
+    }
+
+    @GetMapping(Constants.REVOCATIONS)
+    public ResponseEntity<RevocationSnapshot> getRevocations(@RequestParam(value = "since", required = false) Long since) {
+        if (since != null && since == authService.revocationVersion()) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).build();
+        }
+        return ResponseEntity.ok(authService.revocationSnapshot());
+    }
+}
@@ -0,0 +1,16 @@
+package com.springboot.security_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevocationSnapshot {
+
+    private long version;
+    private List<String> revoked;
+}
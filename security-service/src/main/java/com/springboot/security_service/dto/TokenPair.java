@@ -0,0 +1,14 @@
+package com.springboot.security_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TokenPair {
+
+    private String accessToken;
+    private String refreshToken;
+}
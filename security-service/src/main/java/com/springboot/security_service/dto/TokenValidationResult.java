@@ -0,0 +1,30 @@
+package com.springboot.security_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome for one token of a batch validation, at the token's position in the request.
+ * {@code subject} and {@code exp} (epoch seconds) are only present when the claims could be read.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TokenValidationResult {
+
+    private int index;
+    private Status status;
+    private String subject;
+    private Long exp;
+
+    public enum Status {
+        VALID,
+        EXPIRED,
+        REVOKED,
+        BAD_SIGNATURE,
+        MALFORMED
+    }
+}
@@ -0,0 +1,40 @@
+package com.springboot.security_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One refresh token of a login session. Only the SHA-256 of the token is stored; every token
+ * issued by rotation from the same login shares the family id.
+ */
+@Entity
+@Table(indexes = {
+        @Index(name = "idx_refresh_token_family", columnList = "family_id"),
+        @Index(name = "idx_refresh_token_expires_at", columnList = "expires_at")
+})
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RefreshToken {
+    @Id
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @Column(name = "username")
+    private String username;
+
+    @Column(name = "family_id")
+    private String familyId;
+
+    @Column(name = "expires_at")
+    private long expiresAt;
+
+    @Column(name = "used")
+    private boolean used;
+}
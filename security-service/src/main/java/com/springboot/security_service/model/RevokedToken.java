@@ -0,0 +1,24 @@
+package com.springboot.security_service.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+@Table(indexes = @Index(name = "idx_revoked_token_expires_at", columnList = "expires_at"))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RevokedToken {
+    @Id
+    @Column(name = "jti")
+    private String jti;
+
+    @Column(name = "expires_at")
+    private long expiresAt;
+}
@@ -9,6 +9,7 @@ import lombok.NoArgsConstructor;
 
 
 @Entity
+@Table(indexes = @Index(name = "uk_user_credentials_name", columnList = "name", unique = true))
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
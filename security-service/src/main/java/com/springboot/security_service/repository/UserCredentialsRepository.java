@@ -9,4 +9,6 @@ import java.util.Optional;
 @Repository
 public interface UserCredentialsRepository extends JpaRepository<UserCredentials,Long> {
     Optional<UserCredentials> findByName(String username);
+
+    boolean existsByName(String username);
 }
@@ -1,9 +1,16 @@
 package com.springboot.security_service.service;
 
+import com.springboot.security_service.config.CustomUserDetailsService;
+import com.springboot.security_service.dto.RevocationSnapshot;
+import com.springboot.security_service.dto.TokenPair;
+import com.springboot.security_service.exception.InvalidCredentialsException;
 import com.springboot.security_service.model.UserCredentials;
 import com.springboot.security_service.repository.UserCredentialsRepository;
 import com.springboot.security_service.util.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -13,10 +20,25 @@ public class AuthService {
     private final UserCredentialsRepository repository;
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final RefreshTokenService refreshTokenService;
+    private final CustomUserDetailsService userDetailsService;
 
+    /**
+     * Names are unique; the lookup spares the password hash for a taken name, and the unique
+     * index catches two registrations of the same name racing past it.
+     */
     public String saveUser(UserCredentials credentials){
+        if (repository.existsByName(credentials.getName())) {
+            throw new InvalidCredentialsException("User already exists with username : " + credentials.getName());
+        }
         credentials.setPassword(passwordEncoder.encode(credentials.getPassword()));
-        repository.save(credentials);
+        try {
+            repository.save(credentials);
+        } catch (DataIntegrityViolationException e) {
+            throw new InvalidCredentialsException("User already exists with username : " + credentials.getName());
+        }
+        userDetailsService.evict(credentials.getName());
         return "User added to the System";
     }
 
@@ -24,7 +46,55 @@ public class AuthService {
         return jwtService.generateToken(username);
     }
 
+    /**
+     * Access token plus the first refresh token of a new session, for a user who has just been
+     * authenticated with their password.
+     */
+    public TokenPair issueTokens(String username){
+        RefreshTokenService.Session session = refreshTokenService.issue(username);
+        return new TokenPair(jwtService.generateToken(username, session.familyId()), session.refreshToken());
+    }
+
+    /**
+     * Exchanges a refresh token for a new access token and the next refresh token, without
+     * checking the password again.
+     */
+    public TokenPair refresh(String refreshToken){
+        RefreshTokenService.Session session = refreshTokenService.rotate(refreshToken);
+        return new TokenPair(jwtService.generateToken(session.username(), session.familyId()), session.refreshToken());
+    }
+
     public void validateToken(String token){
         jwtService.validateToken(token);
     }
+
+    /**
+     * Revokes an access token and ends the session it was issued for, so its refresh token
+     * cannot mint a fresh access token afterwards.
+     */
+    public String revokeToken(String token){
+        Claims claims;
+        try {
+            claims = jwtService.extractClaims(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new InvalidCredentialsException("Invalid token");
+        }
+        if (claims.getId() == null) {
+            throw new InvalidCredentialsException("Token has no id and cannot be revoked");
+        }
+        revocationService.revoke(claims.getId(), claims.getExpiration().getTime());
+        String sessionId = claims.get(JwtService.SESSION_ID_CLAIM, String.class);
+        if (sessionId != null) {
+            refreshTokenService.revokeFamily(sessionId);
+        }
+        return "Token revoked";
+    }
+
+    public long revocationVersion(){
+        return revocationService.currentVersion();
+    }
+
+    public RevocationSnapshot revocationSnapshot(){
+        return revocationService.snapshot();
+    }
 }
@@ -0,0 +1,121 @@
+package com.springboot.security_service.service;
+
+import com.springboot.security_service.exception.InvalidCredentialsException;
+import com.springboot.security_service.model.RefreshToken;
+import com.springboot.security_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Opaque, single-use refresh tokens. A login starts a token family; each refresh consumes the
+ * presented token and hands out the next one in the family. Tokens are random, so they are
+ * stored as a SHA-256 digest rather than a slow password hash, which keeps a refresh to a couple
+ * of indexed queries. Presenting a token that was already used means it leaked: the whole family
+ * is deleted and its holder has to log in again. The family id doubles as the session id carried
+ * by the session's access tokens, so revoking one of them can end the session too.
+ */
+@Slf4j
+@Service
+public class RefreshTokenService {
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository repository;
+    private final long ttlMillis;
+    private final SecureRandom random = new SecureRandom();
+    private final Timer refreshTime;
+    private final Counter reuseDetected;
+
+    public RefreshTokenService(RefreshTokenRepository repository,
+                               @Value("${security.refresh-token.ttl:14d}") Duration ttl,
+                               MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.ttlMillis = ttl.toMillis();
+        this.refreshTime = Timer.builder("auth.refresh.time")
+                .description("Time spent rotating a refresh token, for comparison with auth.hashing.time")
+                .register(meterRegistry);
+        this.reuseDetected = Counter.builder("auth.refresh.reuse")
+                .description("Already used refresh tokens presented again, each revoking its family")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Starts a new family for a fresh login and returns it with its first token.
+     */
+    public Session issue(String username) {
+        String familyId = UUID.randomUUID().toString();
+        return new Session(username, familyId, store(username, familyId));
+    }
+
+    public Session rotate(String refreshToken) {
+        return refreshTime.record(() -> {
+            String tokenHash = digest(refreshToken);
+            RefreshToken current = repository.findById(tokenHash)
+                    .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
+            if (current.isUsed() || repository.markUsed(tokenHash) == 0) {
+                reuseDetected.increment();
+                repository.deleteByFamilyId(current.getFamilyId());
+                log.warn("Refresh token reused for user {}, revoked its token family", current.getUsername());
+                throw new InvalidCredentialsException("Refresh token already used, please log in again");
+            }
+            if (current.getExpiresAt() <= System.currentTimeMillis()) {
+                repository.deleteByFamilyId(current.getFamilyId());
+                throw new InvalidCredentialsException("Refresh token expired, please log in again");
+            }
+            return new Session(current.getUsername(), current.getFamilyId(),
+                    store(current.getUsername(), current.getFamilyId()));
+        });
+    }
+
+    /**
+     * Ends a session: none of the family's refresh tokens can be exchanged any more.
+     */
+    public void revokeFamily(String familyId) {
+        repository.deleteByFamilyId(familyId);
+    }
+
+    /**
+     * Drops expired tokens in one bulk delete, off the login path.
+     */
+    @Scheduled(fixedDelayString = "${security.refresh-token.purge-interval:10m}")
+    public void purgeExpired() {
+        repository.deleteExpired(System.currentTimeMillis());
+    }
+
+    private String store(String username, String familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        repository.save(new RefreshToken(digest(token), username, familyId, System.currentTimeMillis() + ttlMillis, false));
+        return token;
+    }
+
+    static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * A login session: its user, its family id and the refresh token to present next.
+     */
+    public record Session(String username, String familyId, String refreshToken) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.springboot.security_service.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.security_service.dto.TokenValidationResult;
+import com.springboot.security_service.dto.TokenValidationResult.Status;
+import com.springboot.security_service.util.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.security.SignatureException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Validates a JSON array of tokens read from a stream and writes a JSON array of
+ * {@link TokenValidationResult}s in the same order. Tokens are read and answered in chunks, so
+ * memory stays flat however long the array is and the first results go out before the last
+ * tokens have arrived; each chunk is verified in parallel against {@link JwtService}'s shared
+ * parser. A token whose id has been revoked is reported as {@code REVOKED}; the revoked ids are
+ * read once per batch. An element that is not a string is reported as {@code MALFORMED} rather
+ * than failing the batch, since earlier results may already have been sent.
+ */
+@Service
+public class TokenBatchValidator {
+
+    private static final int CHUNK_SIZE = 256;
+
+    private final JwtService jwtService;
+    private final TokenRevocationService revocationService;
+    private final ObjectMapper objectMapper;
+    private final Timer batchTime;
+    private final Counter tokensValidated;
+
+    public TokenBatchValidator(JwtService jwtService, TokenRevocationService revocationService,
+                               ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.jwtService = jwtService;
+        this.revocationService = revocationService;
+        this.objectMapper = objectMapper;
+        this.batchTime = Timer.builder("auth.validate.batch.time")
+                .description("Time spent on one batch validation request")
+                .register(meterRegistry);
+        this.tokensValidated = Counter.builder("auth.validate.batch.tokens")
+                .description("Tokens checked through batch validation")
+                .register(meterRegistry);
+    }
+
+    public void validate(InputStream tokens, OutputStream results) throws IOException {
+        Timer.Sample sample = Timer.start();
+        try (JsonParser parser = objectMapper.getFactory().createParser(tokens)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Body must be a JSON array of tokens");
+            }
+            Set<String> revoked = revocationService.revokedIds();
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(results)) {
+                generator.writeStartArray();
+                List<String> chunk = new ArrayList<>(CHUNK_SIZE);
+                int offset = 0;
+                JsonToken next;
+                while ((next = parser.nextToken()) != JsonToken.END_ARRAY && next != null) {
+                    if (next == JsonToken.VALUE_STRING) {
+                        chunk.add(parser.getText());
+                    } else {
+                        parser.skipChildren();
+                        chunk.add(null);
+                    }
+                    if (chunk.size() == CHUNK_SIZE) {
+                        write(generator, validateChunk(chunk, offset, revoked));
+                        offset += chunk.size();
+                        chunk.clear();
+                    }
+                }
+                write(generator, validateChunk(chunk, offset, revoked));
+                generator.writeEndArray();
+            }
+        } finally {
+            sample.stop(batchTime);
+        }
+    }
+
+    private List<TokenValidationResult> validateChunk(List<String> chunk, int offset, Set<String> revoked) {
+        tokensValidated.increment(chunk.size());
+        return IntStream.range(0, chunk.size())
+                .parallel()
+                .mapToObj(i -> validateOne(offset + i, chunk.get(i), revoked))
+                .toList();
+    }
+
+    private void write(JsonGenerator generator, List<TokenValidationResult> chunkResults) throws IOException {
+        for (TokenValidationResult result : chunkResults) {
+            objectMapper.writeValue(generator, result);
+        }
+        generator.flush();
+    }
+
+    TokenValidationResult validateOne(int index, String token, Set<String> revoked) {
+        if (token == null || token.isBlank()) {
+            return new TokenValidationResult(index, Status.MALFORMED, null, null);
+        }
+        try {
+            Claims claims = jwtService.extractClaims(token);
+            boolean isRevoked = claims.getId() != null && revoked.contains(claims.getId());
+            return result(index, isRevoked ? Status.REVOKED : Status.VALID, claims);
+        } catch (ExpiredJwtException e) {
+            return result(index, Status.EXPIRED, e.getClaims());
+        } catch (SignatureException e) {
+            return new TokenValidationResult(index, Status.BAD_SIGNATURE, null, null);
+        } catch (JwtException | IllegalArgumentException e) {
+            return new TokenValidationResult(index, Status.MALFORMED, null, null);
+        }
+    }
+
+    private static TokenValidationResult result(int index, Status status, Claims claims) {
+        Long exp = claims.getExpiration() == null ? null : claims.getExpiration().getTime() / 1000;
+        return new TokenValidationResult(index, status, claims.getSubject(), exp);
+    }
+}
@@ -0,0 +1,79 @@
+package com.springboot.security_service.service;
+
+import com.springboot.security_service.dto.RevocationSnapshot;
+import com.springboot.security_service.model.RevokedToken;
+import com.springboot.security_service.repository.RevokedTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Token ids ({@code jti}) revoked before their expiry. The database is the only copy, so every
+ * security-service instance answers with the same set no matter which one recorded a revocation.
+ * The version is a digest of the live ids rather than a counter: it is identical on every
+ * instance for the same set and changes whenever an id is added or expires, which lets pollers
+ * skip the snapshot when nothing changed.
+ */
+@Service
+@RequiredArgsConstructor
+public class TokenRevocationService {
+
+    private static final long EMPTY_VERSION = 0;
+
+    private final RevokedTokenRepository repository;
+
+    public void revoke(String jti, long expiresAtMillis) {
+        if (expiresAtMillis <= System.currentTimeMillis()) {
+            return;
+        }
+        repository.save(new RevokedToken(jti, expiresAtMillis));
+    }
+
+    public long currentVersion() {
+        return snapshot().getVersion();
+    }
+
+    public RevocationSnapshot snapshot() {
+        List<String> revoked = repository.findLiveJtis(System.currentTimeMillis());
+        return new RevocationSnapshot(versionOf(revoked), revoked);
+    }
+
+    /**
+     * The ids revoked right now, for checking many tokens against one read.
+     */
+    public Set<String> revokedIds() {
+        return Set.copyOf(repository.findLiveJtis(System.currentTimeMillis()));
+    }
+
+    @Scheduled(fixedDelayString = "${security.revocations.purge-interval:1m}")
+    public void purgeExpired() {
+        repository.deleteExpired(System.currentTimeMillis());
+    }
+
+    /**
+     * First eight bytes of the SHA-256 over the ids, which the query returns sorted.
+     */
+    private static long versionOf(List<String> revoked) {
+        if (revoked.isEmpty()) {
+            return EMPTY_VERSION;
+        }
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        for (String jti : revoked) {
+            digest.update(jti.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+        }
+        return ByteBuffer.wrap(digest.digest()).getLong() & Long.MAX_VALUE;
+    }
+}
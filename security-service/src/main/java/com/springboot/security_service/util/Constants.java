@@ -7,5 +7,11 @@ public class Constants {
     public static final String AUTH_BASE_URL = "/auth";
     public static final String REGISTER = "/register";
     public static final String TOKEN = "/token";
+    public static final String REFRESH = "/refresh";
     public static final String VALIDATE = "/validate";
+    public static final String VALIDATE_BATCH = "/validate/batch";
+    public static final String REVOKE = "/revoke";
+    public static final String REVOCATIONS = "/revocations";
+    public static final String BEARER_PREFIX = "Bearer ";
+    public static final String REFRESH_TOKEN_HEADER = "X-Refresh-Token";
 }
@@ -1,50 +1,133 @@
 package com.springboot.security_service.util;
 
 
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.Mac;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
-import java.util.Date;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Base64;
+import java.util.UUID;
 
+/**
+ * Mints and verifies HS256 access tokens. The key and the parser are derived from the secret
+ * once, and each thread keeps its own initialised {@link Mac}. Minting writes the compact JWS
+ * directly, byte for byte what {@code Jwts.builder()} produces for the same claims: the constant
+ * header is encoded once and the claims are written in jjwt's order ({@code jti}, {@code sub},
+ * {@code sid}, {@code iat}, {@code exp}) with Jackson's string escaping.
+ */
 @Component
 public class JwtService {
 
 
     public static String SECRET;
 
+    /**
+     * Claim holding the id of the login session (refresh token family) a token was issued for.
+     */
+    public static final String SESSION_ID_CLAIM = "sid";
+
+    private static final long EXPIRATION_MILLIS = 1000 * 60 * 30;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+    private static final String ENCODED_HEADER =
+            BASE64URL.encodeToString("{\"alg\":\"HS256\"}".getBytes(StandardCharsets.UTF_8));
+
+    private volatile Key signKey;
+    private volatile JwtParser parser;
+    private final ThreadLocal<SigningState> signingState = new ThreadLocal<>();
+
     @Value("${JWT_SECRET}")
     public void setSecret(String secret) {
         this.SECRET = secret;
+        this.signKey = null;
+        this.parser = null;
     }
 
     public void validateToken(final String token) {
-        Jwts.parserBuilder().setSigningKey(getSignKey()).build().parseClaimsJws(token);
+        getParser().parseClaimsJws(token);
+    }
+
+    public Claims extractClaims(final String token) {
+        return getParser().parseClaimsJws(token).getBody();
     }
 
 
     public String generateToken(String userName) {
-        Map<String, Object> claims = new HashMap<>();
-        return createToken(claims, userName);
+        return createToken(userName, null);
+    }
+
+    public String generateToken(String userName, String sessionId) {
+        return createToken(userName, sessionId);
     }
 
-    private String createToken(Map<String, Object> claims, String userName) {
-        return Jwts.builder()
-                .setClaims(claims)
-                .setSubject(userName)
-                .setIssuedAt(new Date(System.currentTimeMillis()))
-                .setExpiration(new Date(System.currentTimeMillis() + 1000 * 60 * 30))
-                .signWith(getSignKey(), SignatureAlgorithm.HS256).compact();
+    private String createToken(String userName, String sessionId) {
+        long now = System.currentTimeMillis();
+        StringBuilder payload = new StringBuilder(128)
+                .append("{\"jti\":\"").append(UUID.randomUUID()).append('"');
+        if (userName != null && !userName.isEmpty()) {
+            payload.append(",\"sub\":\"").append(JsonStringEncoder.getInstance().quoteAsString(userName)).append('"');
+        }
+        if (sessionId != null) {
+            payload.append(",\"" + SESSION_ID_CLAIM + "\":\"")
+                    .append(JsonStringEncoder.getInstance().quoteAsString(sessionId)).append('"');
+        }
+        payload.append(",\"iat\":").append(now / 1000)
+                .append(",\"exp\":").append((now + EXPIRATION_MILLIS) / 1000)
+                .append('}');
+        String signingInput = ENCODED_HEADER + '.'
+                + BASE64URL.encodeToString(payload.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] signature = getMac().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+        return signingInput + '.' + BASE64URL.encodeToString(signature);
     }
 
     private Key getSignKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(SECRET);
-        return Keys.hmacShaKeyFor(keyBytes);
+        Key key = signKey;
+        if (key == null) {
+            byte[] keyBytes = Decoders.BASE64.decode(SECRET);
+            key = Keys.hmacShaKeyFor(keyBytes);
+            signKey = key;
+        }
+        return key;
+    }
+
+    private JwtParser getParser() {
+        JwtParser current = parser;
+        if (current == null) {
+            current = Jwts.parserBuilder().setSigningKey(getSignKey()).build();
+            parser = current;
+        }
+        return current;
+    }
+
+    private Mac getMac() {
+        Key key = getSignKey();
+        SigningState state = signingState.get();
+        if (state == null || state.key != key) {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(key);
+                state = new SigningState(key, mac);
+                signingState.set(state);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Cannot initialise " + HMAC_ALGORITHM, e);
+            }
+        }
+        return state.mac;
+    }
+
+    /**
+     * A thread's {@link Mac}, remembered with the key it was initialised with so a new secret
+     * is picked up.
+     */
+    private record SigningState(Key key, Mac mac) {
     }
 }
@@ -0,0 +1,49 @@
+package com.springboot.security_service.util;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.function.IntFunction;
+
+/**
+ * Picks a password hashing cost for the hardware the service runs on: the highest cost whose
+ * hash still takes no longer than the target, never below a floor. A cost fits when any of a
+ * few timed hashes meets the target, so a GC pause or a cold JIT does not push the choice down.
+ */
+public final class PasswordCostCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-Passw0rd";
+    private static final int RUNS = 3;
+
+    private PasswordCostCalibrator() {
+        throw new UnsupportedOperationException("This is a util class and cannot be instantiated");
+    }
+
+    public static int calibrate(IntFunction<PasswordEncoder> encoderForCost, int minCost, int maxCost, Duration target) {
+        long targetNanos = target.toNanos();
+        int chosen = minCost;
+        for (int cost = minCost; cost <= maxCost; cost++) {
+            if (!fitsWithin(encoderForCost.apply(cost), targetNanos)) {
+                break;
+            }
+            chosen = cost;
+        }
+        return chosen;
+    }
+
+    private static boolean fitsWithin(PasswordEncoder encoder, long targetNanos) {
+        for (int run = 0; run < RUNS; run++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            long elapsed = System.nanoTime() - start;
+            if (elapsed <= targetNanos) {
+                return true;
+            }
+            if (elapsed > 2 * targetNanos) {
+                // Far over: retrying a cost this expensive would only slow startup down.
+                return false;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package com.springboot.security_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuthConfigTest {
+
+    private final AuthConfig authConfig = new AuthConfig();
+
+    private PasswordEncoder encoder(String algorithm) {
+        return authConfig.passwordEncoder(algorithm, 4, 1, 1024, 1, false, Duration.ofMillis(250));
+    }
+
+    @Test
+    void passwordEncoder_prefixesNewHashesWithAlgorithm() {
+        assertTrue(encoder("bcrypt").encode("Test1234").startsWith("{bcrypt}"));
+        assertTrue(encoder("argon2").encode("Test1234").startsWith("{argon2}"));
+    }
+
+    @Test
+    void passwordEncoder_matchesLegacyHash_andAsksForUpgrade() {
+        String legacy = new BCryptPasswordEncoder(4).encode("Test1234");
+        PasswordEncoder encoder = encoder("argon2");
+
+        assertTrue(encoder.matches("Test1234", legacy));
+        assertTrue(encoder.upgradeEncoding(legacy));
+    }
+
+    @Test
+    void passwordEncoder_matchesOtherAlgorithm() {
+        String bcrypt = encoder("bcrypt").encode("Test1234");
+
+        assertTrue(encoder("argon2").matches("Test1234", bcrypt));
+    }
+
+    @Test
+    void passwordEncoder_usesPinnedCostWithoutCalibrating() {
+        assertTrue(encoder("bcrypt").encode("Test1234").startsWith("{bcrypt}$2a$04$"));
+        assertTrue(encoder("argon2").encode("Test1234").contains("$m=1024,t=1,p=1$"));
+    }
+
+    @Test
+    void passwordEncoder_unknownAlgorithm_fails() {
+        assertThrows(IllegalStateException.class, () -> encoder("md5"));
+    }
+}
@@ -0,0 +1,76 @@
+package com.springboot.security_service.config;
+
+import com.springboot.security_service.model.UserCredentials;
+import com.springboot.security_service.repository.UserCredentialsRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class CustomUserDetailsServiceTest {
+
+    @Mock
+    private UserCredentialsRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CustomUserDetailsService userDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        userDetailsService = new CustomUserDetailsService(repository, 100, Duration.ofMinutes(5), meterRegistry);
+        when(repository.findByName("user"))
+                .thenReturn(Optional.of(new UserCredentials(1, "user", "user@example.com", "{bcrypt}hash")));
+        when(repository.save(any(UserCredentials.class))).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    void loadUserByUsername_repeatedLookups_hitCache() {
+        userDetailsService.loadUserByUsername("user");
+        userDetailsService.loadUserByUsername("user");
+
+        verify(repository, times(1)).findByName("user");
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "user.details").tag("result", "hit")
+                .functionCounter().count());
+    }
+
+    @Test
+    void loadUserByUsername_unknownUser_isNotCached() {
+        when(repository.findByName("ghost")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+        assertThrows(UsernameNotFoundException.class, () -> userDetailsService.loadUserByUsername("ghost"));
+
+        verify(repository, times(2)).findByName("ghost");
+    }
+
+    @Test
+    void evict_forcesReload() {
+        userDetailsService.loadUserByUsername("user");
+
+        userDetailsService.evict("user");
+        userDetailsService.loadUserByUsername("user");
+
+        verify(repository, times(2)).findByName("user");
+    }
+
+    @Test
+    void updatePassword_replacesCachedEntry() {
+        userDetailsService.loadUserByUsername("user");
+
+        userDetailsService.updatePassword(userDetailsService.loadUserByUsername("user"), "{argon2}hash");
+
+        assertEquals("{argon2}hash", userDetailsService.loadUserByUsername("user").getPassword());
+        verify(repository).save(any(UserCredentials.class));
+    }
+}
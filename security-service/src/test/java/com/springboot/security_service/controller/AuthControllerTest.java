@@ -4,9 +4,16 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
 import com.springboot.security_service.dto.AuthRequest;
+import com.springboot.security_service.dto.RefreshRequest;
+import com.springboot.security_service.dto.RevocationSnapshot;
+import com.springboot.security_service.dto.TokenPair;
 import com.springboot.security_service.exception.InvalidCredentialsException;
 import com.springboot.security_service.model.UserCredentials;
 import com.springboot.security_service.service.AuthService;
+import com.springboot.security_service.service.PasswordHashingExecutor;
+import com.springboot.security_service.service.TokenBatchValidator;
+import com.springboot.security_service.util.Constants;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
@@ -14,13 +21,22 @@ import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletResponse;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Stream;
 
 import org.mockito.MockitoAnnotations;
@@ -40,6 +56,12 @@ class AuthControllerTest {
     @Mock
     private BindingResult bindingResult;
 
+    @Mock
+    private TokenBatchValidator batchValidator;
+
+    @Spy
+    private PasswordHashingExecutor hashingExecutor = new PasswordHashingExecutor(1, 4, new SimpleMeterRegistry());
+
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
@@ -87,14 +109,15 @@ class AuthControllerTest {
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenReturn(authentication);
-        when(authService.generateToken("username")).thenReturn("GeneratedToken");
+        when(authService.issueTokens("username")).thenReturn(new TokenPair("GeneratedToken", "RefreshToken"));
 
-        String result = authController.getToken(authRequest);
+        ResponseEntity<String> result = authController.getToken(authRequest).join();
 
-        assertEquals("GeneratedToken", result);
+        assertEquals("GeneratedToken", result.getBody());
+        assertEquals("RefreshToken", result.getHeaders().getFirst(Constants.REFRESH_TOKEN_HEADER));
         verify(authenticationManager, times(1))
                 .authenticate(any(UsernamePasswordAuthenticationToken.class));
-        verify(authService, times(1)).generateToken("username");
+        verify(authService, times(1)).issueTokens("username");
     }
 
     @ParameterizedTest
@@ -120,10 +143,11 @@ class AuthControllerTest {
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class)))
                 .thenThrow(new BadCredentialsException("Invalid credentials"));
 
-        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, () ->
-                authController.getToken(authRequest));
+        CompletionException exception = assertThrows(CompletionException.class, () ->
+                authController.getToken(authRequest).join());
 
-        assertEquals("Invalid Access! User Doesn't exist or credentials are incorrect.", exception.getMessage());
+        assertInstanceOf(InvalidCredentialsException.class, exception.getCause());
+        assertEquals("Invalid Access! User Doesn't exist or credentials are incorrect.", exception.getCause().getMessage());
     }
 
     @Test
@@ -136,6 +160,17 @@ class AuthControllerTest {
         assertEquals("Token is Valid", response);
         verify(authService).validateToken(token);
     }
+    @Test
+    void testValidateTokens_StreamsBatchAsJson() throws IOException {
+        InputStream tokens = new ByteArrayInputStream("[\"token\"]".getBytes());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        authController.validateTokens(tokens, response);
+
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, response.getContentType());
+        verify(batchValidator).validate(tokens, response.getOutputStream());
+    }
+
     // Test case for getToken method - authRequest is null
     @Test
     void testGetToken_AuthRequestIsNull() {
@@ -151,12 +186,12 @@ class AuthControllerTest {
         Authentication authentication = mock(Authentication.class);
         when(authentication.isAuthenticated()).thenReturn(true);
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
-        when(authService.generateToken("username")).thenReturn("GeneratedToken");
+        when(authService.issueTokens("username")).thenReturn(new TokenPair("GeneratedToken", "RefreshToken"));
 
-        String token = authController.getToken(authRequest);
+        String token = authController.getToken(authRequest).join().getBody();
 
         assertEquals("GeneratedToken", token);
-        verify(authService).generateToken("username");
+        verify(authService).issueTokens("username");
     }
 
     // Test case for getToken method - authentication failed (isAuthenticated() returns false)
@@ -167,10 +202,59 @@ class AuthControllerTest {
         when(authentication.isAuthenticated()).thenReturn(false);  // Simulating failed authentication
         when(authenticationManager.authenticate(any(UsernamePasswordAuthenticationToken.class))).thenReturn(authentication);
 
-        String token = authController.getToken(authRequest);
+        String token = authController.getToken(authRequest).join().getBody();
 
         assertEquals("", token);  // Should return empty string as token since authentication failed
-        verify(authService, never()).generateToken(anyString());
+        verify(authService, never()).issueTokens(anyString());
+    }
+
+    @Test
+    void testRefreshToken_Success() {
+        when(authService.refresh("refresh-1")).thenReturn(new TokenPair("NewAccessToken", "refresh-2"));
+
+        ResponseEntity<String> response = authController.refreshToken(new RefreshRequest("refresh-1"));
+
+        assertEquals("NewAccessToken", response.getBody());
+        assertEquals("refresh-2", response.getHeaders().getFirst(Constants.REFRESH_TOKEN_HEADER));
+        verify(authenticationManager, never()).authenticate(any());
+    }
+
+    @Test
+    void testRefreshToken_MissingToken() {
+        InvalidCredentialsException exception = assertThrows(InvalidCredentialsException.class, () ->
+                authController.refreshToken(new RefreshRequest(null)));
+
+        assertEquals("Refresh failed: refresh token is missing", exception.getMessage());
     }
 
+    @Test
+    void testRevokeToken_StripsBearerPrefix() {
+        when(authService.revokeToken("token")).thenReturn("Token revoked");
+
+        String response = authController.revokeToken("Bearer token");
+
+        assertEquals("Token revoked", response);
+        verify(authService).revokeToken("token");
+    }
+
+    @Test
+    void testGetRevocations_ReturnsSnapshot() {
+        RevocationSnapshot snapshot = new RevocationSnapshot(5L, List.of("jti-1"));
+        when(authService.revocationSnapshot()).thenReturn(snapshot);
+
+        ResponseEntity<RevocationSnapshot> response = authController.getRevocations(null);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(snapshot, response.getBody());
+    }
+
+    @Test
+    void testGetRevocations_UnchangedVersion_ReturnsNotModified() {
+        when(authService.revocationVersion()).thenReturn(5L);
+
+        ResponseEntity<RevocationSnapshot> response = authController.getRevocations(5L);
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        verify(authService, never()).revocationSnapshot();
+    }
 }
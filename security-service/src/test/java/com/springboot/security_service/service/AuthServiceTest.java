@@ -3,9 +3,18 @@ package com.springboot.security_service.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.springboot.security_service.config.CustomUserDetailsService;
+import com.springboot.security_service.dto.TokenPair;
+import com.springboot.security_service.exception.InvalidCredentialsException;
+import com.springboot.security_service.model.RefreshToken;
 import com.springboot.security_service.model.UserCredentials;
+import com.springboot.security_service.repository.RefreshTokenRepository;
 import com.springboot.security_service.repository.UserCredentialsRepository;
 import com.springboot.security_service.util.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -13,6 +22,12 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.time.Duration;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
 class AuthServiceTest {
 
     @Mock
@@ -24,6 +39,15 @@ class AuthServiceTest {
     @Mock
     private JwtService jwtService;
 
+    @Mock
+    private TokenRevocationService revocationService;
+
+    @Mock
+    private RefreshTokenService refreshTokenService;
+
+    @Mock
+    private CustomUserDetailsService userDetailsService;
+
     @InjectMocks
     private AuthService authService;
 
@@ -42,6 +66,34 @@ class AuthServiceTest {
         assertEquals("User added to the System", result);
         assertEquals("encodedPassword", credentials.getPassword());
         verify(repository, times(1)).save(credentials);
+        verify(userDetailsService).evict("user");
+    }
+
+    @Test
+    void saveUser_ExistingName_ShouldBeRejectedWithoutHashing() {
+        UserCredentials credentials = new UserCredentials(1,"user", "user@example.com", "password");
+        when(repository.existsByName("user")).thenReturn(true);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.saveUser(credentials));
+
+        verify(passwordEncoder, never()).encode(any());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void issueTokens_ShouldStartRefreshTokenFamily() {
+        when(refreshTokenService.issue("user")).thenReturn(new RefreshTokenService.Session("user", "family-1", "refresh"));
+        when(jwtService.generateToken("user", "family-1")).thenReturn("access");
+
+        assertEquals(new TokenPair("access", "refresh"), authService.issueTokens("user"));
+    }
+
+    @Test
+    void refresh_ShouldIssueAccessTokenForRotatedUser() {
+        when(refreshTokenService.rotate("refresh-1")).thenReturn(new RefreshTokenService.Session("user", "family-1", "refresh-2"));
+        when(jwtService.generateToken("user", "family-1")).thenReturn("access");
+
+        assertEquals(new TokenPair("access", "refresh-2"), authService.refresh("refresh-1"));
     }
 
     @Test
@@ -65,4 +117,70 @@ class AuthServiceTest {
 
         verify(jwtService, times(1)).validateToken(token);
     }
+
+    @Test
+    void revokeToken_ShouldRevokeTokenId() {
+        Date expiration = new Date(System.currentTimeMillis() + 60_000);
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(expiration);
+        when(jwtService.extractClaims("token")).thenReturn(claims);
+
+        String result = authService.revokeToken("token");
+
+        assertEquals("Token revoked", result);
+        verify(revocationService).revoke("jti-1", claims.getExpiration().getTime());
+        verify(refreshTokenService, never()).revokeFamily(any());
+    }
+
+    @Test
+    void revokeToken_ShouldEndItsSession() {
+        Claims claims = Jwts.claims().setId("jti-1").setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        claims.put(JwtService.SESSION_ID_CLAIM, "family-1");
+        when(jwtService.extractClaims("token")).thenReturn(claims);
+
+        authService.revokeToken("token");
+
+        verify(refreshTokenService).revokeFamily("family-1");
+    }
+
+    @Test
+    void revokeToken_ThenRefresh_ShouldBeRejected() {
+        Map<String, RefreshToken> refreshTokens = new HashMap<>();
+        RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+        when(refreshTokenRepository.save(any())).thenAnswer(invocation -> {
+            RefreshToken token = invocation.getArgument(0);
+            refreshTokens.put(token.getTokenHash(), token);
+            return token;
+        });
+        when(refreshTokenRepository.findById(any()))
+                .thenAnswer(invocation -> Optional.ofNullable(refreshTokens.get(invocation.<String>getArgument(0))));
+        when(refreshTokenRepository.markUsed(any())).thenReturn(1);
+        doAnswer(invocation -> refreshTokens.values().removeIf(token -> token.getFamilyId().equals(invocation.getArgument(0))))
+                .when(refreshTokenRepository).deleteByFamilyId(any());
+        JwtService realJwtService = new JwtService();
+        realJwtService.setSecret("5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437");
+        AuthService service = new AuthService(repository, passwordEncoder, realJwtService, revocationService,
+                new RefreshTokenService(refreshTokenRepository, Duration.ofDays(1), new SimpleMeterRegistry()),
+                userDetailsService);
+        TokenPair tokens = service.issueTokens("user");
+
+        service.revokeToken(tokens.getAccessToken());
+
+        assertThrows(InvalidCredentialsException.class, () -> service.refresh(tokens.getRefreshToken()));
+    }
+
+    @Test
+    void revokeToken_InvalidToken_ShouldThrow() {
+        when(jwtService.extractClaims("token")).thenThrow(new MalformedJwtException("bad"));
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.revokeToken("token"));
+        verifyNoInteractions(revocationService);
+    }
+
+    @Test
+    void revokeToken_TokenWithoutId_ShouldThrow() {
+        Claims claims = Jwts.claims().setExpiration(new Date(System.currentTimeMillis() + 60_000));
+        when(jwtService.extractClaims("token")).thenReturn(claims);
+
+        assertThrows(InvalidCredentialsException.class, () -> authService.revokeToken("token"));
+    }
 }
@@ -0,0 +1,69 @@
+package com.springboot.security_service.service;
+
+import com.springboot.security_service.exception.ServiceOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PasswordHashingExecutor hashingExecutor;
+    private CountDownLatch release;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hashingExecutor = new PasswordHashingExecutor(1, 2, meterRegistry);
+        release = new CountDownLatch(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hashingExecutor.destroy();
+    }
+
+    private CompletableFuture<String> blockedHash() {
+        return hashingExecutor.submit(() -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hashed";
+        });
+    }
+
+    @Test
+    void submit_runsTaskOnHashingThread() {
+        String thread = hashingExecutor.submit(() -> Thread.currentThread().getName()).join();
+
+        assertTrue(thread.startsWith("password-hashing-"));
+        assertEquals(1, meterRegistry.get("auth.hashing.time").timer().count());
+    }
+
+    @Test
+    void submit_rejectsFastOnceQueueIsFull() {
+        CompletableFuture<String> running = blockedHash();
+        blockedHash();
+        blockedHash();
+
+        long start = System.nanoTime();
+        assertThrows(ServiceOverloadedException.class, this::blockedHash);
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 100);
+        assertEquals(2.0, meterRegistry.get("executor.queued").tag("name", "password.hashing").gauge().value());
+        assertEquals(1.0, meterRegistry.get("auth.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hashed", running.join());
+    }
+}
@@ -0,0 +1,124 @@
+package com.springboot.security_service.service;
+
+import com.springboot.security_service.exception.InvalidCredentialsException;
+import com.springboot.security_service.model.RefreshToken;
+import com.springboot.security_service.repository.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceTest {
+
+    @Mock
+    private RefreshTokenRepository repository;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        meterRegistry = new SimpleMeterRegistry();
+        refreshTokenService = new RefreshTokenService(repository, Duration.ofDays(14), meterRegistry);
+    }
+
+    private RefreshToken issued(String token) {
+        ArgumentCaptor<RefreshToken> saved = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(repository, atLeastOnce()).save(saved.capture());
+        RefreshToken stored = saved.getAllValues().stream()
+                .filter(candidate -> candidate.getTokenHash().equals(RefreshTokenService.digest(token)))
+                .findFirst()
+                .orElseThrow();
+        when(repository.findById(stored.getTokenHash())).thenReturn(Optional.of(stored));
+        return stored;
+    }
+
+    @Test
+    void issue_storesOnlyTheDigest() {
+        RefreshTokenService.Session session = refreshTokenService.issue("user");
+        String token = session.refreshToken();
+
+        RefreshToken stored = issued(token);
+        assertEquals(session.familyId(), stored.getFamilyId());
+        assertNotEquals(token, stored.getTokenHash());
+        assertEquals(64, stored.getTokenHash().length());
+        assertEquals("user", stored.getUsername());
+        assertFalse(stored.isUsed());
+        verify(repository, never()).deleteExpired(anyLong());
+    }
+
+    @Test
+    void purgeExpired_deletesInBulk() {
+        refreshTokenService.purgeExpired();
+
+        verify(repository).deleteExpired(anyLong());
+    }
+
+    @Test
+    void rotate_replacesTokenWithinSameFamily() {
+        String token = refreshTokenService.issue("user").refreshToken();
+        RefreshToken first = issued(token);
+        when(repository.markUsed(first.getTokenHash())).thenReturn(1);
+
+        RefreshTokenService.Session rotation = refreshTokenService.rotate(token);
+
+        assertEquals("user", rotation.username());
+        assertEquals(first.getFamilyId(), rotation.familyId());
+        assertNotEquals(token, rotation.refreshToken());
+        assertEquals(first.getFamilyId(), issued(rotation.refreshToken()).getFamilyId());
+        verify(repository, never()).deleteByFamilyId(any());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesWholeFamily() {
+        String token = refreshTokenService.issue("user").refreshToken();
+        RefreshToken first = issued(token);
+        first.setUsed(true);
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(token));
+
+        verify(repository).deleteByFamilyId(first.getFamilyId());
+        assertEquals(1.0, meterRegistry.get("auth.refresh.reuse").counter().count());
+    }
+
+    @Test
+    void rotate_concurrentUseOfSameToken_revokesWholeFamily() {
+        String token = refreshTokenService.issue("user").refreshToken();
+        RefreshToken first = issued(token);
+        when(repository.markUsed(first.getTokenHash())).thenReturn(0);
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(token));
+
+        verify(repository).deleteByFamilyId(first.getFamilyId());
+    }
+
+    @Test
+    void rotate_expiredToken_isRejected() {
+        String token = refreshTokenService.issue("user").refreshToken();
+        RefreshToken first = issued(token);
+        first.setExpiresAt(System.currentTimeMillis() - 1);
+        when(repository.markUsed(first.getTokenHash())).thenReturn(1);
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate(token));
+
+        verify(repository).deleteByFamilyId(first.getFamilyId());
+    }
+
+    @Test
+    void rotate_unknownToken_isRejected() {
+        when(repository.findById(any())).thenReturn(Optional.empty());
+
+        assertThrows(InvalidCredentialsException.class, () -> refreshTokenService.rotate("unknown"));
+    }
+}
@@ -0,0 +1,135 @@
+package com.springboot.security_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.springboot.security_service.dto.TokenValidationResult;
+import com.springboot.security_service.dto.TokenValidationResult.Status;
+import com.springboot.security_service.util.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TokenBatchValidatorTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+    private static final String OTHER_SECRET = "Zm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFy";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private TokenRevocationService revocationService;
+    private TokenBatchValidator batchValidator;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = new JwtService();
+        jwtService.setSecret(SECRET);
+        meterRegistry = new SimpleMeterRegistry();
+        revocationService = mock(TokenRevocationService.class);
+        when(revocationService.revokedIds()).thenReturn(Set.of());
+        batchValidator = new TokenBatchValidator(jwtService, revocationService, objectMapper, meterRegistry);
+    }
+
+    private static String token(String secret, String subject, long expiresAtMillis) {
+        return Jwts.builder()
+                .setSubject(subject)
+                .setIssuedAt(new Date(expiresAtMillis - 60_000))
+                .setExpiration(new Date(expiresAtMillis))
+                .signWith(Keys.hmacShaKeyFor(Decoders.BASE64.decode(secret)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+
+    private List<TokenValidationResult> validate(String body) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        batchValidator.validate(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        return objectMapper.readValue(out.toByteArray(), new TypeReference<>() {
+        });
+    }
+
+    @Test
+    void validate_reportsEachTokenInOrder() throws IOException {
+        long expiry = System.currentTimeMillis() + 60_000;
+        String body = objectMapper.writeValueAsString(List.of(
+                token(SECRET, "alice", expiry),
+                token(SECRET, "bob", System.currentTimeMillis() - 60_000),
+                token(OTHER_SECRET, "mallory", expiry),
+                "not-a-token"));
+
+        List<TokenValidationResult> results = validate(body);
+
+        assertEquals(List.of(Status.VALID, Status.EXPIRED, Status.BAD_SIGNATURE, Status.MALFORMED),
+                results.stream().map(TokenValidationResult::getStatus).toList());
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(TokenValidationResult::getIndex).toList());
+        assertEquals("alice", results.get(0).getSubject());
+        assertEquals(expiry / 1000, results.get(0).getExp());
+        assertEquals("bob", results.get(1).getSubject());
+        assertNull(results.get(2).getSubject());
+    }
+
+    @Test
+    void validate_revokedToken_isReportedAsRevoked() throws IOException {
+        String revokedToken = jwtService.generateToken("alice");
+        String liveToken = jwtService.generateToken("bob");
+        Claims claims = jwtService.extractClaims(revokedToken);
+        when(revocationService.revokedIds()).thenReturn(Set.of(claims.getId()));
+
+        List<TokenValidationResult> results = validate(objectMapper.writeValueAsString(List.of(revokedToken, liveToken)));
+
+        assertEquals(List.of(Status.REVOKED, Status.VALID), results.stream().map(TokenValidationResult::getStatus).toList());
+        assertEquals("alice", results.get(0).getSubject());
+        verify(revocationService, times(1)).revokedIds();
+    }
+
+    @Test
+    void validate_nonStringElement_isMalformed() throws IOException {
+        List<TokenValidationResult> results = validate("[{\"token\":\"x\"}, 42, null]");
+
+        assertEquals(3, results.size());
+        assertTrue(results.stream().allMatch(result -> result.getStatus() == Status.MALFORMED));
+    }
+
+    @Test
+    void validate_moreTokensThanOneChunk_keepsOrder() throws IOException {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            tokens.add(jwtService.generateToken("user-" + i));
+        }
+
+        List<TokenValidationResult> results = validate(objectMapper.writeValueAsString(tokens));
+
+        assertEquals(1000, results.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertEquals("user-" + i, results.get(i).getSubject());
+        }
+        assertEquals(1000.0, meterRegistry.get("auth.validate.batch.tokens").counter().count());
+    }
+
+    @Test
+    void validate_emptyArray_returnsEmptyArray() throws IOException {
+        assertTrue(validate("[]").isEmpty());
+    }
+
+    @Test
+    void validate_notAnArray_isBadRequest() {
+        assertThrows(ResponseStatusException.class, () -> validate("{\"tokens\":[]}"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.springboot.security_service.service;
+
+import com.springboot.security_service.dto.RevocationSnapshot;
+import com.springboot.security_service.model.RevokedToken;
+import com.springboot.security_service.repository.RevokedTokenRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceTest {
+
+    @Mock
+    private RevokedTokenRepository repository;
+
+    @InjectMocks
+    private TokenRevocationService revocationService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void revoke_storesTokenUntilItExpires() {
+        long expiresAt = System.currentTimeMillis() + 60_000;
+
+        revocationService.revoke("jti-1", expiresAt);
+
+        verify(repository).save(new RevokedToken("jti-1", expiresAt));
+    }
+
+    @Test
+    void revoke_expiredToken_isIgnored() {
+        revocationService.revoke("jti-1", System.currentTimeMillis() - 1);
+
+        verify(repository, never()).save(any(RevokedToken.class));
+    }
+
+    @Test
+    void snapshot_readsLiveTokensFromDatabase() {
+        when(repository.findLiveJtis(anyLong())).thenReturn(List.of("jti-1", "jti-2"));
+
+        RevocationSnapshot snapshot = revocationService.snapshot();
+
+        assertEquals(List.of("jti-1", "jti-2"), snapshot.getRevoked());
+        assertEquals(snapshot.getVersion(), revocationService.currentVersion());
+    }
+
+    @Test
+    void version_isTheSameOnEveryInstanceForTheSameSet() {
+        when(repository.findLiveJtis(anyLong())).thenReturn(List.of("jti-1", "jti-2"));
+        TokenRevocationService otherInstance = new TokenRevocationService(repository);
+
+        assertEquals(revocationService.currentVersion(), otherInstance.currentVersion());
+    }
+
+    @Test
+    void version_changesWhenATokenIsAddedOrExpires() {
+        when(repository.findLiveJtis(anyLong()))
+                .thenReturn(List.of("jti-1"), List.of("jti-1", "jti-2"), List.of("jti-2"), List.of());
+
+        long one = revocationService.currentVersion();
+        long added = revocationService.currentVersion();
+        long expired = revocationService.currentVersion();
+        long empty = revocationService.currentVersion();
+
+        assertNotEquals(one, added);
+        assertNotEquals(added, expired);
+        assertNotEquals(one, expired);
+        assertEquals(0, empty);
+        assertTrue(one > 0 && added > 0 && expired > 0);
+    }
+
+    @Test
+    void purgeExpired_deletesInBulk() {
+        revocationService.purgeExpired();
+
+        verify(repository).deleteExpired(anyLong());
+    }
+}
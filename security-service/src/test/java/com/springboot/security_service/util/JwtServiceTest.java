@@ -0,0 +1,93 @@
+package com.springboot.security_service.util;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.security.SignatureException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.security.Key;
+import java.util.HashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = "5367566B59703373367639792F423F4528482B4D6251655468576D5A71347437";
+
+    private final JwtService jwtService = new JwtService();
+
+    @BeforeEach
+    void setUp() {
+        jwtService.setSecret(SECRET);
+    }
+
+    /**
+     * The token jjwt builds from the same claims, the way tokens were minted before.
+     */
+    private static String jjwtToken(Claims claims) {
+        Key key = Keys.hmacShaKeyFor(Decoders.BASE64.decode(SECRET));
+        JwtBuilder builder = Jwts.builder()
+                .setClaims(new HashMap<>())
+                .setId(claims.getId())
+                .setSubject(claims.getSubject());
+        if (claims.get(JwtService.SESSION_ID_CLAIM) != null) {
+            builder.claim(JwtService.SESSION_ID_CLAIM, claims.get(JwtService.SESSION_ID_CLAIM));
+        }
+        return builder
+                .setIssuedAt(claims.getIssuedAt())
+                .setExpiration(claims.getExpiration())
+                .signWith(key, SignatureAlgorithm.HS256).compact();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"user", "Test User", "quo\"te\\back/slash", "ünïcødé ✓", "tab\tand\nnewline"})
+    void generateToken_matchesJjwtByteForByte(String username) {
+        String token = jwtService.generateToken(username);
+
+        Claims claims = jwtService.extractClaims(token);
+        assertEquals(username, claims.getSubject());
+        assertEquals(jjwtToken(claims), token);
+    }
+
+    @Test
+    void generateToken_withSessionId_matchesJjwtByteForByte() {
+        String token = jwtService.generateToken("user", "family-\"1\"");
+
+        Claims claims = jwtService.extractClaims(token);
+        assertEquals("family-\"1\"", claims.get(JwtService.SESSION_ID_CLAIM, String.class));
+        assertEquals(jjwtToken(claims), token);
+    }
+
+    @Test
+    void generateToken_expiresAfterThirtyMinutes() {
+        Claims claims = jwtService.extractClaims(jwtService.generateToken("user"));
+
+        assertEquals(30 * 60 * 1000L, claims.getExpiration().getTime() - claims.getIssuedAt().getTime());
+        assertNotNull(claims.getId());
+    }
+
+    @Test
+    void generateToken_concurrentThreads_produceValidTokens() {
+        assertDoesNotThrow(() -> IntStream.range(0, 200).parallel()
+                .mapToObj(i -> jwtService.generateToken("user-" + i))
+                .forEach(jwtService::validateToken));
+    }
+
+    @Test
+    void setSecret_newSecret_isUsedForSigning() {
+        String token = jwtService.generateToken("user");
+
+        jwtService.setSecret("Zm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFyZm9vYmFy");
+
+        assertThrows(SignatureException.class, () -> jwtService.validateToken(token));
+        assertDoesNotThrow(() -> jwtService.validateToken(jwtService.generateToken("user")));
+    }
+}
@@ -0,0 +1,54 @@
+package com.springboot.security_service.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordCostCalibratorTest {
+
+    /**
+     * Encoder whose hash takes {@code cost * 10ms}.
+     */
+    private static PasswordEncoder sleepingEncoder(int cost) {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    Thread.sleep(cost * 10L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return true;
+            }
+        };
+    }
+
+    @Test
+    void calibrate_picksHighestCostWithinTarget() {
+        int cost = PasswordCostCalibrator.calibrate(PasswordCostCalibratorTest::sleepingEncoder, 1, 10, Duration.ofMillis(45));
+
+        assertEquals(4, cost);
+    }
+
+    @Test
+    void calibrate_neverGoesBelowMinimum() {
+        int cost = PasswordCostCalibrator.calibrate(PasswordCostCalibratorTest::sleepingEncoder, 3, 10, Duration.ofMillis(1));
+
+        assertEquals(3, cost);
+    }
+
+    @Test
+    void calibrate_stopsAtMaximum() {
+        int cost = PasswordCostCalibrator.calibrate(PasswordCostCalibratorTest::sleepingEncoder, 1, 2, Duration.ofSeconds(1));
+
+        assertEquals(2, cost);
+    }
+}